@@ -0,0 +1,65 @@
+package org.example.scholar.bench;
+
+import org.example.scholar.Main;
+import org.example.scholar.service.ScholarUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author id extraction, one call per input shape users actually paste:
+ * a bare id, an id with leftover query parameters and a full profile URL.
+ * Each invocation goes over a small set of inputs so the JIT cannot specialise on one string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorIdBenchmark {
+
+    @Param({"id", "idWithParams", "url"})
+    public String shape;
+
+    private String[] inputs;
+
+    @Setup
+    public void setup() {
+        String[] ids = {"FyYiDG0AAAAJ", "Mxgb_LUAAAAJ", "AbCdEf12gh3J", "ZyXwVu98ts7K"};
+        inputs = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            inputs[i] = switch (shape) {
+                case "id" -> ids[i];
+                case "idWithParams" -> ids[i] + "&hl=es&oi=ao";
+                default -> "https://scholar.google.com/citations?hl=en&user=" + ids[i] + "&view_op=list_works&sortby=pubdate";
+            };
+        }
+    }
+
+    @Benchmark
+    public void mainExtractAuthorId(Blackhole bh) {
+        for (String s : inputs) bh.consume(Main.extractAuthorId(s));
+    }
+
+    @Benchmark
+    public void extractAuthorIdFromUrl(Blackhole bh) {
+        for (String s : inputs) bh.consume(ScholarUtils.extractAuthorIdFromUrl(s));
+    }
+
+    @Benchmark
+    public void looksLikeAuthorId(Blackhole bh) {
+        for (String s : inputs) bh.consume(ScholarUtils.looksLikeAuthorId(s));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.scholar.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.scholar.Main.Article;
+import org.example.scholar.service.KeywordExtractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shared by the benchmarks.
+ *
+ * fixtures/author-page.json is one google_scholar_author page with every block SerpApi returns
+ * (metadata, author, articles, cited_by table and graph, public_access, co_authors, pagination).
+ * Larger pages and article batches are built by replicating its articles with distinct titles,
+ * so sizes can be parameterized without shipping megabytes of JSON.
+ */
+public final class Fixtures {
+    public static final String AUTHOR_ID = "FyYiDG0AAAAJ";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNode PAGE = load("/fixtures/author-page.json");
+
+    private Fixtures() {}
+
+    /** The recorded page as is. */
+    public static byte[] authorPage() {
+        return authorPage(PAGE.path("articles").size());
+    }
+
+    /** The recorded page with its articles replicated (or truncated) to exactly n entries. */
+    public static byte[] authorPage(int n) {
+        ObjectNode page = PAGE.deepCopy();
+        ArrayNode source = (ArrayNode) PAGE.path("articles");
+        ArrayNode articles = page.putArray("articles");
+        for (int i = 0; i < n; i++) {
+            ObjectNode a = source.get(i % source.size()).deepCopy();
+            if (i >= source.size()) a.put("title", a.path("title").asText() + " (" + (i / source.size()) + ")");
+            articles.add(a);
+        }
+        try {
+            return MAPPER.writeValueAsBytes(page);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Titles of the recorded articles. */
+    public static List<String> titles() {
+        List<String> out = new ArrayList<>();
+        for (JsonNode a : PAGE.path("articles")) out.add(a.path("title").asText());
+        return out;
+    }
+
+    /**
+     * n distinct articles as the sync path receives them; citedBy is shifted by citedByOffset
+     * so two batches with different offsets differ only in their citation counts.
+     */
+    public static List<Article> articles(int n, int citedByOffset) {
+        JsonNode source = PAGE.path("articles");
+        List<Article> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            JsonNode a = source.get(i % source.size());
+            String title = a.path("title").asText() + " #" + i;
+            out.add(new Article(title, a.path("authors").asText(), a.path("year").asText() + "-01-01",
+                    null, a.path("link").asText(), KeywordExtractor.shared().keywords(title),
+                    a.path("cited_by").path("value").asInt() + citedByOffset));
+        }
+        return out;
+    }
+
+    private static JsonNode load(String resource) {
+        try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + resource);
+            return MAPPER.readTree(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.scholar.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.scholar.Main;
+import org.example.scholar.service.AuthorJsonParser;
+import org.example.scholar.service.RateLimiter;
+import org.example.scholar.service.ResponseCache;
+import org.example.scholar.service.SerpApiClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a google_scholar_author page into the application model.
+ *
+ * Both clients are given a memory-only {@link ResponseCache} pre-filled with the fixture,
+ * so the whole client path runs (cache lookup, parse, mapping) without touching the network.
+ * treeBaseline is the readTree-and-walk approach the parser replaced, kept for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int articles;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] body;
+    private SerpApiClient serpApi;
+    private Main.ScholarClient scholar;
+
+    @Setup
+    public void setup() {
+        body = Fixtures.authorPage(articles);
+        ResponseCache cache = new ResponseCache(null, TimeUnit.DAYS.toMillis(1), 64L << 20, 0);
+        cache.put(ResponseCache.key("google_scholar_author", Fixtures.AUTHOR_ID, Map.of("hl", "en")), body);
+        cache.put(ResponseCache.key("google_scholar_author", Fixtures.AUTHOR_ID,
+                Map.of("num", articles, "hl", "en", "start", 0)), body);
+        RateLimiter limiter = new RateLimiter(1, 1, 0, 0, 0);
+        serpApi = new SerpApiClient("bench", limiter, cache);
+        scholar = new Main.ScholarClient("bench", limiter, cache);
+    }
+
+    @Benchmark
+    public AuthorJsonParser.Summary streamingParse(Blackhole bh) throws Exception {
+        return AuthorJsonParser.parse(new ByteArrayInputStream(body), articles, (title, link, authors, publication, year, citedBy, snippet) -> {
+            bh.consume(title);
+            bh.consume(citedBy);
+        });
+    }
+
+    @Benchmark
+    public void treeBaseline(Blackhole bh) throws Exception {
+        JsonNode root = mapper.readTree(body);
+        bh.consume(root.path("author").path("name").asText());
+        for (JsonNode a : root.path("articles")) {
+            bh.consume(a.path("title").asText());
+            bh.consume(a.path("cited_by").path("value").asInt());
+        }
+    }
+
+    @Benchmark
+    public Object serpApiClientProfile() throws Exception {
+        return serpApi.getAuthorProfile(Fixtures.AUTHOR_ID, articles);
+    }
+
+    @Benchmark
+    public Object scholarClientPage() throws Exception {
+        return scholar.fetchPage(Fixtures.AUTHOR_ID, 0, articles);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.scholar.bench;
+
+import org.example.scholar.service.KeywordExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword derivation (what ScholarClient.deriveKeywords runs for every article), with and
+ * without corpus statistics. Time is per title.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordBenchmark {
+
+    @Param({"none", "corpus"})
+    public String stats;
+
+    private KeywordExtractor extractor;
+    private String[] titles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<String> t = Fixtures.titles();
+        titles = t.toArray(new String[0]);
+        extractor = new KeywordExtractor();
+        if (stats.equals("corpus")) {
+            // Document frequencies as KeywordIndex.recompute would compute them over the fixture
+            Map<String, Integer> df = new HashMap<>();
+            for (String title : titles) extractor.distinctTerms(title, term -> df.merge(term, 1, Integer::sum));
+            extractor.useStats(new KeywordExtractor.CorpusStats(titles.length, df));
+        }
+    }
+
+    @Benchmark
+    public void keywords(Blackhole bh) {
+        String title = titles[next];
+        next = next + 1 == titles.length ? 0 : next + 1;
+        bh.consume(extractor.keywords(title));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.scholar.bench;
+
+import org.example.scholar.Main.Article;
+import org.example.scholar.Main.ScholarDb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScholarDb.saveAuthorArticles on a temporary database, one call (one transaction) per invocation.
+ *
+ * Modes:
+ *  - insert:    every call saves the batch under a new researcher, so all rows are new.
+ *  - update:    the batch is already stored; calls alternate between two citation counts,
+ *               so every row is rewritten (and recorded in citation_history).
+ *  - unchanged: the batch is already stored as is; only the hash lookups run.
+ * A fresh database is created for every iteration so insert runs do not grow without bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveArticlesBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    public int batch;
+
+    @Param({"insert", "update", "unchanged"})
+    public String mode;
+
+    private List<Article> current;
+    private List<Article> changed;
+    private Path dir;
+    private ScholarDb db;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void fixtures() {
+        current = Fixtures.articles(batch, 0);
+        changed = Fixtures.articles(batch, 1);
+    }
+
+    @Setup(Level.Iteration)
+    public void openDb() throws Exception {
+        dir = Files.createTempDirectory("scholar-bench");
+        db = new ScholarDb("jdbc:sqlite:" + dir.resolve("bench.db"));
+        db.init();
+        if (!mode.equals("insert")) db.saveAuthorArticles(Fixtures.AUTHOR_ID, "Bench", current);
+        calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDb() throws Exception {
+        db.close();
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public ScholarDb.SyncStats save() throws Exception {
+        long n = calls++;
+        return switch (mode) {
+            case "insert" -> db.saveAuthorArticles("R" + n, "Bench", current);
+            case "update" -> db.saveAuthorArticles(Fixtures.AUTHOR_ID, "Bench", (n & 1) == 0 ? changed : current);
+            default -> db.saveAuthorArticles(Fixtures.AUTHOR_ID, "Bench", current);
+        };
+    }
+}
@@ -0,0 +1,303 @@
+package org.example.scholar;
+
+import org.example.scholar.metrics.Counter;
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.metrics.Timer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ingesta masiva en dos etapas que se solapan:
+ *  - Descarga: un hilo virtual por autor (un semáforo limita cuántas peticiones a SerpApi hay en vuelo)
+ *    deja cada resultado en una cola acotada. Si la cola se llena, las descargas esperan (backpressure).
+ *  - Escritura: un único hilo vacía la cola y guarda muchos autores en una sola transacción,
+ *    cada commitRows filas o cada commitMillis milisegundos, lo que ocurra antes.
+ * Con maxArticles = 0 se recorren todas las páginas de cada autor y cada página entra en la cola según llega.
+ */
+public class BulkIngestor {
+    private static final Job END = new Job(null, null, List.of(), null, false);
+    private static final Timer AUTHOR_TIMER = Metrics.shared().timer("bulk.author");
+    private static final Counter AUTHORS_OK = Metrics.shared().counter("bulk.authors.ok");
+    private static final Counter AUTHORS_FAILED = Metrics.shared().counter("bulk.authors.failed");
+
+    private final Main.ScholarClient client;
+    private final Main.ScholarDb db;
+    private final int maxArticles;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final int commitRows;
+    private final long commitMillis;
+
+    public BulkIngestor(Main.ScholarClient client, Main.ScholarDb db, int maxArticles, int concurrency) {
+        this(client, db, maxArticles, concurrency, 64, 500, 200);
+    }
+
+    public BulkIngestor(Main.ScholarClient client, Main.ScholarDb db, int maxArticles, int concurrency,
+                        int queueCapacity, int commitRows, long commitMillis) {
+        if (concurrency < 1) throw new IllegalArgumentException("concurrency debe ser >= 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity debe ser >= 1");
+        this.client = client;
+        this.db = db;
+        this.maxArticles = maxArticles;
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+        this.commitRows = Math.max(1, commitRows);
+        this.commitMillis = Math.max(1, commitMillis);
+    }
+
+    /**
+     * Procesa cada ID o URL de entrada y devuelve un resultado por autor, en el mismo orden.
+     * Un autor cuenta como correcto cuando su último lote quedó confirmado (commit) en la base de datos.
+     * Un fallo en un autor no interrumpe a los demás.
+     */
+    public List<Outcome> run(Iterable<String> inputs) throws InterruptedException {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>();
+        pump(inputs, futures::add);
+
+        List<Outcome> outcomes = new ArrayList<>(futures.size());
+        for (CompletableFuture<Outcome> f : futures) outcomes.add(f.join());
+        return outcomes;
+    }
+
+    /**
+     * Variante para listas enormes (p. ej. un AuthorIdReader): las entradas se consumen de a una, según
+     * hay permisos, y cada resultado se entrega al sink en cuanto se conoce y no se conserva.
+     * El sink se llama en orden de finalización y desde los hilos del pipeline, así que debe ser thread-safe.
+     * Devuelve cuántos autores se procesaron.
+     */
+    public long run(Iterable<String> inputs, Consumer<Outcome> sink) throws InterruptedException {
+        long[] count = {0};
+        pump(inputs, result -> {
+            count[0]++;
+            result.thenAccept(sink);
+        });
+        return count[0];
+    }
+
+    // Lanza una descarga por entrada y espera a que todo quede escrito; onStart recibe el resultado de cada autor
+    private void pump(Iterable<String> inputs, Consumer<CompletableFuture<Outcome>> onStart)
+            throws InterruptedException {
+        BlockingQueue<Job> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread writer = Thread.ofPlatform().name("scholar-writer").start(() -> writeLoop(queue));
+
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String input : inputs) {
+                permits.acquire(); // no lanzamos más descargas de las permitidas
+                Pending pending = new Pending(input, System.nanoTime());
+                onStart.accept(pending.result);
+                pool.submit(() -> {
+                    try {
+                        fetchInto(queue, pending);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } finally { // close() ya esperó a que terminen todas las descargas
+            // También si la entrada falla o nos interrumpen: sin END el escritor (no daemon) no termina
+            // y la JVM no puede salir. La excepción original sigue su curso cuando el escritor vació la cola
+            stopWriter(queue, writer);
+        }
+    }
+
+    private static void stopWriter(BlockingQueue<Job> queue, Thread writer) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(END);
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // --- Etapa 1: descarga (productores) ---
+    private void fetchInto(BlockingQueue<Job> queue, Pending pending) {
+        String authorId = Main.extractAuthorId(pending.input);
+        pending.authorId = authorId;
+        if (authorId == null || authorId.isBlank()) {
+            pending.fail("No se pudo extraer el author_id");
+            return;
+        }
+        try {
+            if (maxArticles <= 0) {
+                // Cada página se encola en cuanto llega; la última se marca al terminar el recorrido
+                Job[] held = new Job[1];
+                client.harvestArticles(authorId, Main.ScholarClient.MAX_PAGE_SIZE, (researcherName, page) -> {
+                    if (held[0] != null) queue.put(held[0]);
+                    held[0] = new Job(authorId, researcherName, page, pending, false);
+                });
+                Job last = held[0] != null
+                        ? new Job(authorId, held[0].researcherName(), held[0].articles(), pending, true)
+                        : new Job(authorId, "", List.of(), pending, true);
+                queue.put(last);
+            } else {
+                Main.ScholarClient.FetchResult fr = client.fetchTopArticles(authorId, maxArticles);
+                queue.put(new Job(authorId, fr.researcherName(), fr.articles(), pending, true));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            pending.fail("Interrumpido");
+        } catch (Exception ex) {
+            pending.fail(ex.getMessage());
+        }
+    }
+
+    // --- Etapa 2: escritura con commits agrupados (consumidor único) ---
+    private void writeLoop(BlockingQueue<Job> queue) {
+        List<Job> batch = new ArrayList<>();
+        try {
+            consume(queue, batch);
+        } catch (Throwable ex) {
+            // El escritor murió (p. ej. un Error): nadie más vacía la cola y los productores quedarían
+            // bloqueados en queue.put, así que se fallan los pendientes y se sigue vaciando hasta END
+            String error = "El escritor se detuvo: " + ex;
+            for (Job j : batch) j.pending().fail(error);
+            drain(queue, error);
+            throw ex;
+        }
+    }
+
+    private void consume(BlockingQueue<Job> queue, List<Job> batch) {
+        int rows = 0;
+        long deadline = 0;
+        try {
+            while (true) {
+                Job job = batch.isEmpty()
+                        ? queue.take()
+                        : queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (job == END) break;
+                if (job != null) {
+                    if (batch.isEmpty()) deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(commitMillis);
+                    batch.add(job);
+                    rows += job.articles().size();
+                }
+                if (!batch.isEmpty() && (rows >= commitRows || System.nanoTime() >= deadline)) {
+                    flush(batch);
+                    batch.clear();
+                    rows = 0;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush(batch);
+        batch.clear();
+    }
+
+    private static void drain(BlockingQueue<Job> queue, String error) {
+        try {
+            for (Job j = queue.take(); j != END; j = queue.take()) j.pending().fail(error);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<Job> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            saveAll(batch); // una transacción para todo el lote
+        } catch (Exception ex) {
+            if (batch.size() == 1) {
+                batch.get(0).pending().fail("Error al guardar: " + ex.getMessage());
+                return;
+            }
+            // Se deshizo todo el lote: se reintenta de a uno para que un autor con datos inválidos
+            // no arrastre a los demás
+            for (Job j : batch) {
+                try {
+                    saveAll(List.of(j));
+                } catch (Exception one) {
+                    j.pending().fail("Error al guardar: " + one.getMessage());
+                }
+            }
+        }
+    }
+
+    private void saveAll(List<Job> jobs) throws SQLException {
+        List<Main.ScholarDb.AuthorArticles> items = new ArrayList<>(jobs.size());
+        for (Job j : jobs) items.add(new Main.ScholarDb.AuthorArticles(j.authorId(), j.researcherName(), j.articles()));
+        List<Main.ScholarDb.SyncStats> stats = db.saveAll(items);
+        for (int i = 0; i < jobs.size(); i++) {
+            Job j = jobs.get(i);
+            j.pending().saved += j.articles().size();
+            j.pending().stats = j.pending().stats.plus(stats.get(i));
+            j.pending().researcherName = j.researcherName();
+            if (j.last()) j.pending().succeed();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Un lote de artículos de un autor listo para guardar; last = es el último de ese autor
+    private record Job(String authorId, String researcherName, List<Main.Article> articles,
+                       Pending pending, boolean last) {}
+
+    // Estado de un autor mientras atraviesa el pipeline.
+    // El resultado se fija una sola vez: un autor puede fallar en la descarga con páginas ya encoladas,
+    // y sólo quien completa el resultado lo cuenta en las métricas.
+    private static final class Pending {
+        final String input;
+        final long startNanos;
+        final CompletableFuture<Outcome> result = new CompletableFuture<>();
+        volatile String authorId;
+        // sólo los escribe el hilo escritor; un fallo en la descarga también los lee
+        volatile String researcherName;
+        volatile int saved;
+        volatile Main.ScholarDb.SyncStats stats = Main.ScholarDb.SyncStats.EMPTY;
+
+        Pending(String input, long startNanos) {
+            this.input = input;
+            this.startNanos = startNanos;
+        }
+
+        void succeed() {
+            if (result.complete(new Outcome(input, authorId, researcherName, saved, stats, null, elapsedMillis(startNanos)))) {
+                AUTHOR_TIMER.stop(startNanos);
+                AUTHORS_OK.increment();
+            }
+        }
+
+        // Lo que ya quedó confirmado de páginas anteriores se informa igual en saved/stats
+        void fail(String error) {
+            if (result.complete(new Outcome(input, authorId, researcherName, saved, stats, error, elapsedMillis(startNanos)))) {
+                AUTHORS_FAILED.increment();
+            }
+        }
+    }
+
+    // --- Resultado por autor ---
+    public record Outcome(
+            String input,
+            String authorId,
+            String researcherName,
+            int saved,
+            Main.ScholarDb.SyncStats stats,
+            String error,
+            long millis
+    ) {
+        public boolean ok() { return error == null; }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.scholar;
+
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.DuplicateIndex;
+import org.example.scholar.db.Schema;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class Dedup {
+    private static final String USAGE =
+            "Uso: Dedup [--threshold=0.8] [--threads=N] [--dry-run]\n" +
+            "  Busca artículos repetidos (mismo trabajo en varios perfiles o con el título algo cambiado)\n" +
+            "  y guarda en article_canonical a qué artículo canónico corresponde cada copia.\n" +
+            "  --threshold=X  similitud mínima (Jaccard) para darlos por iguales\n" +
+            "  --threads=N    hilos para recorrer la tabla (por defecto, núcleos disponibles)\n" +
+            "  --dry-run      sólo muestra lo que encontraría, sin escribir";
+
+    public static void main(String[] args) throws Exception {
+        double threshold = DuplicateIndex.DEFAULT_THRESHOLD;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean dryRun = false;
+        for (String a : args) {
+            if (a.startsWith("--threshold=")) threshold = Double.parseDouble(a.substring("--threshold=".length()));
+            else if (a.startsWith("--threads=")) threads = Integer.parseInt(a.substring("--threads=".length()));
+            else if (a.equals("--dry-run")) dryRun = true;
+            else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+
+        // --dry-run sólo lee articles: sin conexión escritora, no crea scholar.db ni cambia su journal_mode
+        Path file = Path.of("scholar.db");
+        if (dryRun && !Files.exists(file)) {
+            System.err.println("No existe " + file + ": nada que buscar");
+            System.exit(1);
+        }
+        String url = "jdbc:sqlite:" + file;
+        ConnectionManager.Settings settings = ConnectionManager.Settings.fromSystemProperties();
+        try (ConnectionManager db = dryRun
+                ? ConnectionManager.readOnly(url, settings)
+                : new ConnectionManager(url, settings)) {
+            // Al guardar, article_canonical tiene que existir
+            if (!dryRun) Schema.migrator(db).migrate(new Migrate.Progress());
+            DuplicateIndex.Result r = new DuplicateIndex(db).run(threads, threshold, !dryRun);
+
+            System.out.printf("Artículos: %d  candidatos: %d  confirmados: %d (%d ms)%n",
+                    r.articles(), r.candidates(), r.confirmed(), r.millis());
+            System.out.printf("Grupos de duplicados: %d  copias asignadas a un canónico: %d%n",
+                    r.groups(), r.mappings().size());
+
+            // Los grupos más grandes primero
+            Map<Long, Integer> sizes = new TreeMap<>();
+            for (DuplicateIndex.Mapping m : r.mappings()) sizes.merge(m.canonicalId(), 2, (x, y) -> x + 1);
+            sizes.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                    .limit(10)
+                    .forEach(e -> System.out.printf("  canónico %d -> %d artículos%n", e.getKey(), e.getValue()));
+            System.out.println(dryRun ? "Sin cambios (--dry-run)." : "Guardado en article_canonical.");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.scholar;
+
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.Schema;
+import org.example.scholar.graph.CoauthorGraph;
+import org.example.scholar.graph.GraphAnalysis;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class Graph {
+    private static final String USAGE =
+            "Uso: Graph [--top=N] [--threads=N] [--author=NOMBRE]\n" +
+            "  Construye el grafo de coautorías con la columna authors y muestra grados, componentes y PageRank.\n" +
+            "Ejemplo: Graph --top=20 --author=\"J Smith\" (lista sus --top coautores principales)";
+
+    public static void main(String[] args) throws Exception {
+        int top = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String author = null;
+        for (String a : args) {
+            if (a.startsWith("--top=")) top = Integer.parseInt(a.substring("--top=".length()));
+            else if (a.startsWith("--threads=")) threads = Integer.parseInt(a.substring("--threads=".length()));
+            else if (a.startsWith("--author=")) author = a.substring("--author=".length());
+            else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try (ConnectionManager db = new ConnectionManager("jdbc:sqlite:scholar.db",
+                ConnectionManager.Settings.fromSystemProperties())) {
+            Schema.migrator(db).migrate(new Migrate.Progress()); // el grafo lee la vista canonical_articles
+
+            // --- Construcción: nombres -> ids enteros y adyacencia CSR ---
+            long start = System.nanoTime();
+            CoauthorGraph graph = CoauthorGraph.load(db, pool);
+            long buildMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Grafo: %d autores, %d pares de coautores (%d ms)%n",
+                    graph.vertices(), graph.edges(), buildMs);
+
+            GraphAnalysis analysis = new GraphAnalysis(graph, pool);
+
+            // --- Componentes conexas ---
+            start = System.nanoTime();
+            GraphAnalysis.Components cc = analysis.components();
+            System.out.printf("%n== Componentes conexas: %d (%d ms) ==%n", cc.count(), (System.nanoTime() - start) / 1_000_000);
+            for (int c = 0; c < Math.min(5, cc.count()); c++) {
+                System.out.printf("#%d -> %d autores%n", c + 1, cc.sizes()[c]);
+            }
+
+            // --- Grado ---
+            System.out.println("\n== Más coautores ==");
+            for (int v : analysis.topByDegree(top)) {
+                System.out.printf("%-40s %d%n", graph.name(v), graph.degree(v));
+            }
+
+            // --- PageRank ponderado por artículos en común ---
+            start = System.nanoTime();
+            GraphAnalysis.PageRank pr = analysis.pageRank(0.85, 100, 1e-9);
+            System.out.printf("%n== PageRank (%d iteraciones, %d ms) ==%n", pr.iterations(), (System.nanoTime() - start) / 1_000_000);
+            for (int v : GraphAnalysis.top(pr.scores(), top)) {
+                System.out.printf("%-40s %.6f%n", graph.name(v), pr.scores()[v]);
+            }
+
+            if (author != null) {
+                int v = graph.id(author);
+                if (v < 0) {
+                    System.out.println("\nNo se encontró al autor: " + author);
+                } else {
+                    System.out.printf("%n== %s: %d coautores, componente #%d ==%n",
+                            graph.name(v), graph.degree(v), cc.component()[v] + 1);
+                    // Los que más artículos comparten primero
+                    int[] neighbors = graph.neighbors(v);
+                    double[] shared = new double[neighbors.length];
+                    for (int i = 0; i < neighbors.length; i++) shared[i] = graph.weight(v, neighbors[i]);
+                    for (int i : GraphAnalysis.top(shared, Math.max(top, 0))) {
+                        System.out.printf("%-40s %d artículos%n", graph.name(neighbors[i]), (int) shared[i]);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.scholar;
+
+import org.example.scholar.db.KeywordIndex;
+import org.example.scholar.service.KeywordExtractor;
+
+public class Keywords {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        try (Main.ScholarDb db = new Main.ScholarDb("jdbc:sqlite:scholar.db")) {
+            db.init();
+            KeywordIndex index = new KeywordIndex(db.connections(), KeywordExtractor.shared());
+
+            // (1) Frecuencias de documento de cada término sobre todos los títulos
+            long start = System.nanoTime();
+            KeywordExtractor.CorpusStats stats = index.recompute(threads);
+            System.out.printf("Estadísticas: %d títulos, %d términos (%d ms)%n",
+                    stats.documents(), stats.df().size(), (System.nanoTime() - start) / 1_000_000);
+
+            // (2) Recalcular las keywords de cada artículo con TF-IDF
+            start = System.nanoTime();
+            long changed = index.rekeywordAll(threads);
+            System.out.printf("Keywords actualizadas en %d artículos (%d ms)%n",
+                    changed, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
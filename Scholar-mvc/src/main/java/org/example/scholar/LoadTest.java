@@ -0,0 +1,148 @@
+package org.example.scholar;
+
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.service.RateLimiter;
+import org.example.scholar.service.ResponseCache;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prueba de carga de extremo a extremo: empuja N autores por el camino completo
+ * descarga → parseo → guardado (BulkIngestor) y reporta throughput y latencias p50/p90/p99 por autor.
+ * Con --stub levanta StubServer en el mismo proceso; con --base-url= usa un servidor ya en marcha.
+ * La caché de respuestas se desactiva para medir siempre la red y el parseo.
+ * Contra la SerpApi real cada petición se descuenta del presupuesto del mes en scholar.db, como en Main.
+ */
+public class LoadTest {
+    private static final String USAGE =
+            "Uso: LoadTest (--stub [opciones del stub] | --base-url=URL) [--authors=N] [--concurrency=N]\n" +
+            "              [--max=N|all] [--rate=R] [--db=ARCHIVO]\n" +
+            "     opciones del stub: " + StubServer.USAGE + "\n" +
+            "Ejemplo: LoadTest --stub --latency-ms=80 --throttle-rate=0.02 --authors=500 --concurrency=32 --max=all";
+
+    public static void main(String[] args) throws Exception {
+        boolean stub = false;
+        String baseUrl = null;
+        int authors = 200;
+        int concurrency = 16;
+        int max = 0;
+        double rate = 1000;
+        String dbPath = null;
+        StubServer.Config stubCfg = StubServer.Config.defaults().with("--port=0");
+        for (String a : args) {
+            StubServer.Config next;
+            if (a.equals("--stub")) stub = true;
+            else if (a.startsWith("--base-url=")) baseUrl = a.substring("--base-url=".length());
+            else if (a.startsWith("--authors=")) authors = Integer.parseInt(a.substring("--authors=".length()));
+            else if (a.startsWith("--concurrency=")) concurrency = Integer.parseInt(a.substring("--concurrency=".length()));
+            else if (a.equals("--max=all")) max = 0;
+            else if (a.startsWith("--max=")) max = Integer.parseInt(a.substring("--max=".length()));
+            else if (a.startsWith("--rate=")) rate = Double.parseDouble(a.substring("--rate=".length()));
+            else if (a.startsWith("--db=")) dbPath = a.substring("--db=".length());
+            else if ((next = stubCfg.with(a)) != null) stubCfg = next;
+            else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+        if (stub == (baseUrl != null)) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        Metrics.shared().startReporterFromSystemProperties();
+        StubServer server = stub ? StubServer.start(stubCfg) : null;
+        if (server != null) baseUrl = server.baseUrl();
+
+        // Base temporal por defecto: cada corrida empieza vacía y no toca scholar.db
+        Path tmpDir = dbPath == null ? Files.createTempDirectory("scholar-loadtest") : null;
+        String url = "jdbc:sqlite:" + (dbPath != null ? dbPath : tmpDir.resolve("loadtest.db").toString());
+
+        // Limitador propio (el compartido está pensado para la cuota real de SerpApi)
+        RateLimiter limiter = new RateLimiter(rate, (int) Math.max(1, rate), 5, 100, 5_000);
+        Main.ScholarClient client = new Main.ScholarClient(
+                System.getenv().getOrDefault("SERPAPI_API_KEY", "loadtest"), limiter, ResponseCache.disabled(), baseUrl);
+
+        List<BulkIngestor.Outcome> outcomes;
+        long elapsedNanos;
+        // Un stub no gasta cuota; SerpApi sí, aunque los datos vayan a la base temporal
+        String host = URI.create(baseUrl).getHost();
+        boolean serpApi = host != null && host.endsWith("serpapi.com");
+        Main.ScholarDb quotaDb = serpApi ? Main.openDb() : null;
+        try (Main.ScholarDb db = new Main.ScholarDb(url)) {
+            db.init();
+            BulkIngestor ingestor = new BulkIngestor(client, db, max, concurrency, concurrency * 4, 500, 200);
+            long start = System.nanoTime();
+            outcomes = ingestor.run(authorIds(authors));
+            elapsedNanos = System.nanoTime() - start;
+        } finally {
+            if (quotaDb != null) quotaDb.close();
+            if (server != null) server.close();
+            if (tmpDir != null) deleteTree(tmpDir);
+        }
+
+        report(outcomes, elapsedNanos, concurrency, baseUrl);
+        System.out.println("Limitador: " + limiter);
+        if (server != null) System.out.println("Stub: " + server);
+        System.out.print("Métricas por etapa:\n" + Metrics.shared().summary());
+    }
+
+    // IDs sintéticos con el formato de Google Scholar (12 caracteres), generados bajo demanda
+    private static List<String> authorIds(int n) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int i) { return String.format("LT%08dAJ", i); }
+
+            @Override
+            public int size() { return n; }
+        };
+    }
+
+    private static void report(List<BulkIngestor.Outcome> outcomes, long elapsedNanos, int concurrency, String baseUrl) {
+        long[] latencies = new long[outcomes.size()];
+        int ok = 0;
+        long rows = 0;
+        String firstError = null;
+        for (BulkIngestor.Outcome o : outcomes) {
+            if (o.ok()) {
+                latencies[ok++] = o.millis();
+                rows += o.saved();
+            } else if (firstError == null) {
+                firstError = o.input() + ": " + o.error();
+            }
+        }
+        latencies = Arrays.copyOf(latencies, ok);
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("Servidor: %s, concurrencia=%d%n", baseUrl, concurrency);
+        System.out.printf("Autores: %d/%d correctos en %.2f s: %.1f autores/s, %.0f filas/s (%d filas)%n",
+                ok, outcomes.size(), seconds, ok / seconds, rows / seconds, rows);
+        if (ok > 0) {
+            System.out.printf("Latencia por autor (ms): p50=%d p90=%d p99=%d máx=%d%n",
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                    latencies[latencies.length - 1]);
+        }
+        if (firstError != null) {
+            System.out.printf("Fallos: %d (primero: %s)%n", outcomes.size() - ok, firstError);
+        }
+    }
+
+    // Percentil por rango más cercano sobre un arreglo ordenado
+    private static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static void deleteTree(Path dir) throws java.io.IOException {
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+}
@@ -1,68 +1,210 @@
 package org.example.scholar;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.net.URI;
+import org.example.scholar.db.AuthorMetrics;
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.KeywordIndex;
+import org.example.scholar.db.QuotaLedger;
+import org.example.scholar.db.RefreshSchedule;
+import org.example.scholar.db.ResearchCatalog;
+import org.example.scholar.db.Schema;
+import org.example.scholar.metrics.Counter;
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.metrics.Timer;
+import org.example.scholar.model.AuthorProfile;
+import org.example.scholar.service.AuthorIdReader;
+import org.example.scholar.service.AuthorIdScanner;
+import org.example.scholar.service.AuthorJsonParser;
+import org.example.scholar.service.KeywordExtractor;
+import org.example.scholar.service.RateLimiter;
+import org.example.scholar.service.ResponseCache;
+import org.example.scholar.service.ScholarUtils;
+import org.example.scholar.service.SerpApiHttp;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public class Main {
     public static void main(String[] args) throws Exception {
+        Metrics.shared().startReporterFromSystemProperties(); // resumen periódico en el log (y JMX siempre)
+        if (args.length >= 1 && args[0].equals("--bulk")) {
+            runBulk(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         if (args.length < 2) {
             System.err.println("Uso: Main <AUTHOR_ID_1> <AUTHOR_ID_2> [MAX_ARTICLES]\n" +
+                    "     " + BULK_USAGE.substring("Uso: ".length()) + "\n" +
                     "Ejemplo: Main LSsXyncAAAAJ AbCdEf123456 3");
             System.exit(1);
         }
         int max = args.length >= 3 ? Integer.parseInt(args[2]) : 3;
 
-        String apiKey = System.getenv("SERPAPI_API_KEY");
-        if (apiKey == null || apiKey.isBlank()) {
-            throw new IllegalStateException("Define SERPAPI_API_KEY en variables de entorno.");
-        }
+        String apiKey = requireApiKey();
 
-        ScholarDb db = new ScholarDb("jdbc:sqlite:scholar.db");
-        db.init(); // Crea la tabla si no existe
+        try (ScholarDb db = openDb()) {
 
-        ScholarClient client = new ScholarClient(apiKey);
-        for (int i = 0; i < 2; i++) {
-            // *** Importante: limpiar/extraer el ID por si pegaste la URL completa o viene con &hl=... ***
-            String authorId = extractAuthorId(args[i]);
+            ScholarClient client = new ScholarClient(apiKey);
+            for (int i = 0; i < 2; i++) {
+                // *** Importante: limpiar/extraer el ID por si pegaste la URL completa o viene con &hl=... ***
+                String authorId = extractAuthorId(args[i]);
 
-            ScholarClient.FetchResult fr = client.fetchTopArticles(authorId, max);
-            db.saveAuthorArticles(authorId, fr.researcherName(), fr.articles());
-            System.out.printf("Guardados %d artículos de %s (%s)%n",
-                    fr.articles().size(), fr.researcherName(), authorId);
+                ScholarClient.FetchResult fr = client.fetchTopArticles(authorId, max);
+                ScholarDb.SyncStats st = db.saveAuthorArticles(authorId, fr.researcherName(), fr.articles());
+                System.out.printf("Guardados %d artículos de %s (%s): %d nuevos, %d actualizados, %d sin cambios%n",
+                        fr.articles().size(), fr.researcherName(), authorId, st.inserted(), st.updated(), st.unchanged());
+            }
         }
 
         System.out.println("Listo. Archivo DB: scholar.db");
     }
 
+    private static final String BULK_USAGE =
+            "Uso: Main --bulk [--concurrency=N] [--max=N|all] [--commit-rows=N] [--commit-ms=T] (<AUTHOR_ID|URL>... | --file=ARCHIVO)";
+
+    // --- Modo masivo: cualquier cantidad de IDs/URLs, descargados en paralelo ---
+    private static void runBulk(String[] args) throws Exception {
+        int max = 3;
+        int concurrency = 8;
+        int commitRows = 500;
+        long commitMs = 200;
+        String file = null;
+        List<String> inputs = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--file=")) file = a.substring("--file=".length());
+            else if (a.equals("--max=all")) max = 0; // 0 = todas las publicaciones, página a página
+            else if (a.startsWith("--max=")) max = Integer.parseInt(a.substring("--max=".length()));
+            else if (a.startsWith("--concurrency=")) concurrency = Integer.parseInt(a.substring("--concurrency=".length()));
+            else if (a.startsWith("--commit-rows=")) commitRows = Integer.parseInt(a.substring("--commit-rows=".length()));
+            else if (a.startsWith("--commit-ms=")) commitMs = Long.parseLong(a.substring("--commit-ms=".length()));
+            else inputs.add(a);
+        }
+        if (inputs.isEmpty() == (file == null)) {
+            System.err.println(BULK_USAGE);
+            System.exit(1);
+        }
+        if (file != null) {
+            runBulkFile(Path.of(file), max, concurrency, commitRows, commitMs);
+            return;
+        }
+
+        List<BulkIngestor.Outcome> outcomes;
+        long elapsed;
+        try (ScholarDb db = openDb()) {
+            BulkIngestor ingestor = new BulkIngestor(new ScholarClient(requireApiKey()), db, max, concurrency,
+                    concurrency * 4, commitRows, commitMs);
+
+            long start = System.nanoTime();
+            outcomes = ingestor.run(inputs);
+            elapsed = (System.nanoTime() - start) / 1_000_000;
+        }
+
+        int ok = 0;
+        ScholarDb.SyncStats total = ScholarDb.SyncStats.EMPTY;
+        for (BulkIngestor.Outcome o : outcomes) {
+            total = total.plus(o.stats()); // un autor fallido puede tener páginas ya confirmadas
+            if (o.ok()) {
+                ok++;
+                System.out.printf("OK    %s: %d artículos de %s (%d nuevos, %d actualizados, %d sin cambios; %d ms)%n",
+                        o.authorId(), o.saved(), o.researcherName(),
+                        o.stats().inserted(), o.stats().updated(), o.stats().unchanged(), o.millis());
+            } else {
+                printBulkFailure(o);
+            }
+        }
+        System.out.printf("Listo: %d/%d autores en %d ms (concurrencia=%d). Archivo DB: scholar.db%n",
+                ok, outcomes.size(), elapsed, concurrency);
+        printBulkTotals(total);
+    }
+
+    // --- Modo masivo desde archivo: una línea por ID/URL, leído en streaming y sin duplicados ---
+    private static void runBulkFile(Path file, int max, int concurrency, int commitRows, long commitMs) throws Exception {
+        AuthorIdReader reader = new AuthorIdReader(file);
+        BulkTally tally = new BulkTally();
+        long elapsed;
+        try (reader; ScholarDb db = openDb()) { // cierra el archivo aunque la ingesta se corte antes del final
+            BulkIngestor ingestor = new BulkIngestor(new ScholarClient(requireApiKey()), db, max, concurrency,
+                    concurrency * 4, commitRows, commitMs);
+
+            long start = System.nanoTime();
+            ingestor.run(reader, tally); // el archivo se consume según avanzan las descargas
+            elapsed = (System.nanoTime() - start) / 1_000_000;
+        }
+        System.out.printf("Archivo %s: %d líneas, %d IDs distintos, %d duplicados, %d inválidos%n",
+                file, reader.lines(), reader.ids(), reader.duplicates(), reader.invalid());
+        System.out.printf("Listo: %d/%d autores en %d ms (concurrencia=%d). Archivo DB: scholar.db%n",
+                tally.ok, tally.ok + tally.failed, elapsed, concurrency);
+        printBulkTotals(tally.total);
+    }
+
+    // Acumula resultados según llegan (desde varios hilos); sólo imprime fallos y el avance
+    private static final class BulkTally implements Consumer<BulkIngestor.Outcome> {
+        long ok;
+        long failed;
+        ScholarDb.SyncStats total = ScholarDb.SyncStats.EMPTY;
+
+        @Override
+        public synchronized void accept(BulkIngestor.Outcome o) {
+            total = total.plus(o.stats());
+            if (o.ok()) {
+                ok++;
+            } else {
+                failed++;
+                printBulkFailure(o);
+            }
+            if ((ok + failed) % 1000 == 0) {
+                System.out.printf("... %d autores procesados (%d fallos)%n", ok + failed, failed);
+            }
+        }
+    }
+
+    private static void printBulkFailure(BulkIngestor.Outcome o) {
+        System.out.printf("FALLO %s: %s%s (%d ms)%n", o.input(), o.error(),
+                o.saved() > 0 ? " (" + o.saved() + " artículos ya guardados)" : "", o.millis());
+    }
+
+    private static void printBulkTotals(ScholarDb.SyncStats total) {
+        System.out.printf("Filas: %d nuevas, %d actualizadas, %d sin cambios%n",
+                total.inserted(), total.updated(), total.unchanged());
+        System.out.println("Limitador SerpApi: " + RateLimiter.shared());
+        System.out.println("Caché SerpApi: " + ResponseCache.shared());
+        System.out.print("Métricas por etapa:\n" + Metrics.shared().summary());
+    }
+
+    // Crea las tablas si no existen, carga las estadísticas del corpus para las keywords y,
+    // desde aquí, cada petición a SerpApi se descuenta del presupuesto del mes en quota_ledger
+    static ScholarDb openDb() throws SQLException {
+        ScholarDb db = new ScholarDb("jdbc:sqlite:scholar.db");
+        db.init();
+        KeywordExtractor.shared().useStats(new KeywordIndex(db.connections(), KeywordExtractor.shared()).load());
+        SerpApiHttp.shared().useQuota(new QuotaLedger(db.connections()).quota(monthlyBudget()));
+        return db;
+    }
+
+    // Peticiones a SerpApi por mes, compartidas por todos los procesos que usan scholar.db
+    static int monthlyBudget() {
+        return Integer.getInteger("serpapi.monthlyBudget", 250);
+    }
+
+    static String requireApiKey() {
+        String apiKey = System.getenv("SERPAPI_API_KEY");
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("Define SERPAPI_API_KEY en variables de entorno.");
+        }
+        return apiKey;
+    }
+
     // --- Helper para aceptar tanto IDs limpios como URLs completas o IDs con &hl=... ---
-    private static String extractAuthorId(String input) {
-        if (input == null) return null;
-        String s = input.trim();
-
-        // Si ya parece un ID limpio (sin http ni &), devuélvelo
-        if (!s.contains("http") && !s.contains("&") && s.matches("[A-Za-z0-9_-]+")) {
-            return s;
-        }
-        // Si es URL: busca user=
-        int i = s.indexOf("user=");
-        if (i >= 0) {
-            String after = s.substring(i + "user=".length());
-            int amp = after.indexOf('&');
-            return (amp >= 0 ? after.substring(0, amp) : after).trim();
-        }
-        // Si vino como ID&hl=es (u otro parámetro)
-        int amp = s.indexOf('&');
-        if (amp >= 0) s = s.substring(0, amp);
-
-        return s.trim();
+    public static String extractAuthorId(String input) {
+        // Un solo recorrido sin expresiones regulares: valor de user= si lo hay; si no, lo anterior al primer &
+        return AuthorIdScanner.extract(input);
     }
 
     // --- Modelo de datos ---
@@ -78,125 +220,410 @@ public class Main {
 
     // --- Cliente SerpApi ---
     public static class ScholarClient {
-        private static final String BASE = "https://serpapi.com/search.json";
-        private final HttpClient http = HttpClient.newHttpClient();
-        private final ObjectMapper mapper = new ObjectMapper();
+        public static final int MAX_PAGE_SIZE = 100; // máximo "num" que acepta google_scholar_author
+
+        // Métricas por etapa (ver Metrics): parseo y keywords aquí, la red en SerpApiHttp
+        private static final Timer PARSE_TIMER = Metrics.shared().timer("fetch.parse");
+        private static final Timer KEYWORDS_TIMER = Metrics.shared().timer("keywords.derive");
+        private static final Counter CACHE_HITS = Metrics.shared().counter("cache.hits");
+        private final SerpApiHttp http = SerpApiHttp.shared(); // sendAsync: una petición en vuelo no ocupa hilo
         private final String apiKey;
+        private final String searchUrl;
+        private final RateLimiter limiter;
+        private final ResponseCache cache;
+
+        public ScholarClient(String apiKey) { this(apiKey, RateLimiter.shared(), ResponseCache.shared()); }
+
+        public ScholarClient(String apiKey, RateLimiter limiter, ResponseCache cache) {
+            this(apiKey, limiter, cache, ScholarUtils.serpApiBaseUrl());
+        }
+
+        /** baseUrl: raíz de la API (https://serpapi.com o un servidor local, ver StubServer). */
+        public ScholarClient(String apiKey, RateLimiter limiter, ResponseCache cache, String baseUrl) {
+            this.apiKey = apiKey;
+            this.searchUrl = baseUrl + "/search.json";
+            this.limiter = limiter;
+            this.cache = cache;
+        }
 
-        public ScholarClient(String apiKey) { this.apiKey = apiKey; }
+        public RateLimiter limiter() { return limiter; }
 
         public FetchResult fetchTopArticles(String authorId, int max) throws Exception {
-            String url = BASE + "?engine=google_scholar_author"
-                    + "&author_id=" + URLEncoder.encode(authorId, StandardCharsets.UTF_8)
-                    + "&num=" + max
-                    + "&hl=en"
-                    + "&api_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
+            return await(fetchTopArticlesAsync(authorId, max));
+        }
 
-            HttpRequest req = HttpRequest.newBuilder(URI.create(url)).GET().build();
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+        /** Igual que fetchTopArticles, sin bloquear: el futuro se completa con la respuesta ya parseada. */
+        public CompletableFuture<FetchResult> fetchTopArticlesAsync(String authorId, int max) {
+            return fetchPageAsync(authorId, 0, max).thenApply(page -> new FetchResult(page.researcherName(), page.articles()));
+        }
 
-            if (resp.statusCode() == 429) {
-                throw new RuntimeException("Rate limit (429). Reintenta más tarde.");
+        /**
+         * Recorre todas las páginas del autor (parámetros start/num) y entrega cada una al sink.
+         * Mientras el sink guarda la página actual, la siguiente ya se está descargando;
+         * en memoria nunca hay más de dos páginas. Devuelve el total de artículos entregados.
+         */
+        public int harvestArticles(String authorId, int pageSize, PageSink sink) throws Exception {
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("pageSize debe estar entre 1 y " + MAX_PAGE_SIZE);
             }
-            if (resp.statusCode() >= 400) {
-                throw new RuntimeException("HTTP " + resp.statusCode() + ": " + resp.body());
+            int total = 0;
+            CompletableFuture<Page> next = fetchPageAsync(authorId, 0, pageSize);
+            while (next != null) {
+                Page page = await(next);
+                int nextStart = page.start() + page.articles().size();
+                next = page.hasMore() ? fetchPageAsync(authorId, nextStart, pageSize) : null;
+                try {
+                    sink.accept(page.researcherName(), page.articles());
+                } catch (Exception ex) {
+                    if (next != null) next.cancel(true);
+                    throw ex;
+                }
+                total += page.articles().size();
             }
+            return total;
+        }
 
-            JsonNode root = mapper.readTree(resp.body());
-            String status = root.path("search_metadata").path("status").asText("");
-            if (!status.equalsIgnoreCase("Success")) {
-                String msg = root.path("error").asText("Error SerpApi desconocido");
-                throw new RuntimeException("SerpApi status=\"" + status + "\": " + msg);
+        private static <T> T await(CompletableFuture<T> f) throws Exception {
+            try {
+                return f.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof Exception e ? e : ex;
+            }
+        }
+
+        /** Descarga (o lee de la caché) una página de artículos del autor y la convierte a Article. */
+        public Page fetchPage(String authorId, int start, int num) throws Exception {
+            return await(fetchPageAsync(authorId, start, num));
+        }
+
+        /** Versión asíncrona de fetchPage; los errores HTTP y de SerpApi completan el futuro con la excepción. */
+        public CompletableFuture<Page> fetchPageAsync(String authorId, int start, int num) {
+            // La clave no incluye la api_key: la misma respuesta sirve para cualquier cuenta
+            String cacheKey = ResponseCache.key("google_scholar_author", authorId,
+                    Map.of("num", num, "hl", "en", "start", start));
+            byte[] cached = cache.get(cacheKey);
+            if (cached != null) {
+                CACHE_HITS.increment();
+                return CompletableFuture.supplyAsync(() -> toPage(new ByteArrayInputStream(cached), start, num, null), Runnable::run);
             }
 
-            String researcherName = root.path("author").path("name").asText("");
-            JsonNode articles = root.path("articles");
+            String url = searchUrl + "?engine=google_scholar_author"
+                    + "&author_id=" + URLEncoder.encode(authorId, StandardCharsets.UTF_8)
+                    + "&num=" + num
+                    + (start > 0 ? "&start=" + start : "")
+                    + "&hl=en"
+                    + "&api_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
+            // El limitador espera turno y reintenta los 429 sin dormir hilos; sólo falla si agota los reintentos
+            // El cuerpo se parsea en un hilo virtual según llega, no en los hilos del cliente HTTP
+            return http.get(url, limiter, body -> toPage(body, start, num, cacheKey));
+        }
+
+        // Parsea el cuerpo; cacheKey != null guarda la respuesta si SerpApi la dio por buena
+        private Page toPage(InputStream body, int start, int num, String cacheKey) {
+            // El parser entrega cada artículo según lo lee; sólo se extraen los campos que usamos
             List<Article> list = new ArrayList<>();
-            for (int i = 0; i < Math.min(articles.size(), max); i++) {
-                JsonNode a = articles.get(i);
-                String title = a.path("title").asText("");
-                String link = a.path("link").asText("");
-                String authors = a.path("authors").asText("");
-                String year = a.path("year").asText("");
-                String publicationDate = year.isBlank() ? null : year + "-01-01";
-                Integer citedBy = a.path("cited_by").path("value").isMissingNode()
-                        ? null : a.path("cited_by").path("value").asInt();
-                String abs = a.path("snippet").asText(null);
-                String keywords = deriveKeywords(title);
-                list.add(new Article(title, authors, publicationDate, abs, link, keywords, citedBy));
+            AuthorJsonParser.ArticleSink sink = (title, link, authors, publication, year, citedBy, snippet) -> {
+                String t = title != null ? title : "";
+                String publicationDate = year == null || year.isBlank() ? null : year + "-01-01";
+                list.add(new Article(t, authors != null ? authors : "", publicationDate, snippet,
+                        link != null ? link : "", deriveKeywords(t), citedBy));
+            };
+
+            AuthorJsonParser.Summary summary;
+            byte[] json = null;
+            long t = PARSE_TIMER.start();
+            try {
+                // Para guardarlo en la caché hace falta el JSON entero; sin caché se parsea según se descomprime
+                if (cacheKey != null && cache.isEnabled()) json = body.readAllBytes();
+                summary = AuthorJsonParser.parse(json != null ? new ByteArrayInputStream(json) : body, num, sink);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Respuesta de SerpApi no válida", ex);
             }
-            return new FetchResult(researcherName, list);
+            PARSE_TIMER.stop(t);
+            if (cacheKey != null) {
+                if (!summary.success()) {
+                    String msg = summary.error() != null ? summary.error() : "Error SerpApi desconocido";
+                    throw new RuntimeException("SerpApi status=\"" + summary.status() + "\": " + msg);
+                }
+                if (json != null) cache.put(cacheKey, json); // sólo se cachean respuestas correctas
+            }
+
+            String researcherName = summary.name() != null ? summary.name() : "";
+            // Hay más páginas si SerpApi ofrece "next" (o, sin bloque de paginación, si la página vino llena)
+            boolean hasMore = !list.isEmpty() && (summary.paginationPresent()
+                    ? summary.hasNext()
+                    : summary.articleCount() >= num);
+            return new Page(researcherName, list, start, hasMore);
         }
 
+        // Keywords por TF-IDF con las estadísticas del corpus (ver KeywordIndex)
         private static String deriveKeywords(String title) {
-            if (title == null) return "";
-            String[] tokens = title.toLowerCase().replaceAll("[^a-z0-9\\s]", " ").split("\\s+");
-            Set<String> stop = Set.of("the","a","an","of","and","for","to","in","on","with","by",
-                    "from","using","based","analysis","study","model");
-            LinkedHashSet<String> unique = new LinkedHashSet<>();
-            for (String t : tokens) if (t.length() > 3 && !stop.contains(t)) unique.add(t);
-            return String.join(",", unique.stream().limit(6).toList());
+            long t = KEYWORDS_TIMER.start();
+            String keywords = KeywordExtractor.shared().keywords(title);
+            KEYWORDS_TIMER.stop(t);
+            return keywords;
         }
 
         public record FetchResult(String researcherName, List<Article> articles) {}
+
+        /** Una página de resultados; start es el desplazamiento del primer artículo. */
+        public record Page(String researcherName, List<Article> articles, int start, boolean hasMore) {}
+
+        /** Recibe cada página en cuanto está lista (por ejemplo, para guardarla en ScholarDb). */
+        @FunctionalInterface
+        public interface PageSink {
+            void accept(String researcherName, List<Article> articles) throws Exception;
+        }
     }
 
     // --- Capa de base de datos ---
-    public static class ScholarDb {
-        private final String url;
-        public ScholarDb(String url) { this.url = url; }
+    // Usa conexiones persistentes (un escritor + lectores en WAL) en lugar de abrir el archivo en cada llamada
+    public static class ScholarDb implements AutoCloseable {
+        // Sincronización incremental: se compara un hash del contenido con el guardado y sólo se escribe
+        // lo nuevo o lo que cambió; las filas iguales no tocan páginas ni el WAL
+        private static final String SELECT_HASH_SQL =
+                "SELECT id, content_hash, cited_by FROM articles WHERE researcher_id = ? AND title = ?";
+        private static final String INSERT_SQL = """
+                INSERT INTO articles (researcher_id, researcher_name, title, authors, publication_date, abstract, link, keywords, cited_by, content_hash)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        private static final String UPDATE_SQL = """
+                UPDATE articles SET
+                    researcher_name=?, authors=?, publication_date=?, abstract=?, link=?, keywords=?, cited_by=?, content_hash=?
+                WHERE researcher_id = ? AND title = ?
+            """;
+
+        private static final Timer SAVE_TIMER = Metrics.shared().timer("db.saveAuthorArticles");
+        private static final Timer SAVE_ALL_TIMER = Metrics.shared().timer("db.saveAll");
+        private static final Counter ROWS_INSERTED = Metrics.shared().counter("db.rows.inserted");
+        private static final Counter ROWS_UPDATED = Metrics.shared().counter("db.rows.updated");
+        private static final Counter ROWS_UNCHANGED = Metrics.shared().counter("db.rows.unchanged");
+
+        private final ConnectionManager db;
+        private final ResearchCatalog catalog;
+        private final AuthorMetrics metrics; // h-index / i10 / citas en memoria, al día con cada escritura
+
+        public ScholarDb(String url) throws SQLException {
+            this(new ConnectionManager(url, ConnectionManager.Settings.fromSystemProperties()));
+        }
+
+        public ScholarDb(ConnectionManager db) {
+            this.db = db;
+            this.catalog = new ResearchCatalog(db);
+            this.metrics = new AuthorMetrics(db);
+        }
+
+        public ConnectionManager connections() { return db; }
 
+        /**
+         * Aplica en orden las migraciones pendientes registradas en schema_version, también las reescrituras
+         * de datos: van por lotes, sueltan el bloqueo entre uno y otro y, si se cortan, siguen donde quedaron.
+         * En una base grande la primera vez puede tardar; se informa el avance como en Migrate.
+         */
         public void init() throws SQLException {
-            try (Connection c = DriverManager.getConnection(url); Statement s = c.createStatement()) {
-                s.executeUpdate("""
-                    CREATE TABLE IF NOT EXISTS articles (
-                      id               INTEGER PRIMARY KEY AUTOINCREMENT,
-                      researcher_id    TEXT    NOT NULL,
-                      researcher_name  TEXT,
-                      title            TEXT    NOT NULL,
-                      authors          TEXT,
-                      publication_date TEXT,
-                      abstract         TEXT,
-                      link             TEXT,
-                      keywords         TEXT,
-                      cited_by         INTEGER,
-                      created_at       TEXT DEFAULT (datetime('now')),
-                      UNIQUE(researcher_id, title)
-                    );
-                """);
+            Schema.migrator(db).migrate(new Migrate.Progress());
+        }
+
+        /**
+         * Inserta los artículos nuevos, actualiza sólo los que cambiaron y deja intactos los iguales.
+         * Todas las escrituras pasan por la única conexión escritora; cada llamada es una transacción.
+         * Cada fila escrita se copia también a las tablas normalizadas (ResearchCatalog) en la misma transacción,
+         * y los cambios de cited_by se aplican a las métricas locales (AuthorMetrics).
+         * La fecha de la descarga queda en refresh_state (RefreshSchedule).
+         */
+        public SyncStats saveAuthorArticles(String researcherId, String researcherName, List<Article> items) throws SQLException {
+            long t = SAVE_TIMER.start();
+            SyncStats stats;
+            try {
+                stats = writeAuthorArticles(researcherId, researcherName, items);
+            } catch (SQLException | RuntimeException ex) {
+                metrics.invalidate(researcherId); // rollback: las métricas en memoria ya no coinciden
+                throw ex;
             }
+            SAVE_TIMER.stop(t);
+            ROWS_INSERTED.add(stats.inserted());
+            ROWS_UPDATED.add(stats.updated());
+            ROWS_UNCHANGED.add(stats.unchanged());
+            return stats;
         }
 
-        public void saveAuthorArticles(String researcherId, String researcherName, List<Article> items) throws SQLException {
-            String sql = """
-                INSERT INTO articles (researcher_id, researcher_name, title, authors, publication_date, abstract, link, keywords, cited_by)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON CONFLICT(researcher_id, title) DO UPDATE SET
-                    authors=excluded.authors,
-                    publication_date=excluded.publication_date,
-                    abstract=excluded.abstract,
-                    link=excluded.link,
-                    keywords=excluded.keywords,
-                    cited_by=excluded.cited_by,
-                    researcher_name=excluded.researcher_name
-            """;
-            try (Connection c = DriverManager.getConnection(url); PreparedStatement ps = c.prepareStatement(sql)) {
-                c.setAutoCommit(false);
+        private SyncStats writeAuthorArticles(String researcherId, String researcherName, List<Article> items) throws SQLException {
+            return db.write(session -> {
+                PreparedStatement select = session.prepare(SELECT_HASH_SQL); // compiladas una sola vez
+                PreparedStatement insert = session.prepare(INSERT_SQL);
+                PreparedStatement update = session.prepare(UPDATE_SQL);
+                PreparedStatement lastId = session.prepare("SELECT last_insert_rowid()");
+                Map<String, Long> authorIds = new HashMap<>();
+                boolean researcherWritten = false;
+                int inserted = 0, updated = 0, unchanged = 0;
                 for (Article a : items) {
-                    ps.setString(1, researcherId);
-                    ps.setString(2, researcherName);
-                    ps.setString(3, a.title());
-                    ps.setString(4, a.authors());
-                    ps.setString(5, a.publicationDate());
-                    ps.setString(6, a.abs());
-                    ps.setString(7, a.link());
-                    ps.setString(8, a.keywords());
-                    if (a.citedBy() == null) ps.setNull(9, Types.INTEGER); else ps.setInt(9, a.citedBy());
-                    ps.addBatch();
+                    long hash = contentHash(researcherName, a);
+                    select.setString(1, researcherId);
+                    select.setString(2, a.title());
+                    Long stored = null;
+                    Integer storedCitedBy = null;
+                    long id = 0;
+                    boolean exists;
+                    try (ResultSet rs = select.executeQuery()) {
+                        exists = rs.next();
+                        if (exists) {
+                            id = rs.getLong(1);
+                            long h = rs.getLong(2);
+                            stored = rs.wasNull() ? null : h;
+                            int c = rs.getInt(3);
+                            storedCitedBy = rs.wasNull() ? null : c;
+                        }
+                    }
+                    boolean changed = !exists || stored == null || stored != hash;
+                    if (changed && !researcherWritten) {
+                        ResearchCatalog.writeResearcher(session, researcherId, researcherName);
+                        researcherWritten = true;
+                    }
+
+                    if (!exists) {
+                        insert.setString(1, researcherId);
+                        insert.setString(2, researcherName);
+                        insert.setString(3, a.title());
+                        insert.setString(4, a.authors());
+                        insert.setString(5, a.publicationDate());
+                        insert.setString(6, a.abs());
+                        insert.setString(7, a.link());
+                        insert.setString(8, a.keywords());
+                        if (a.citedBy() == null) insert.setNull(9, Types.INTEGER); else insert.setInt(9, a.citedBy());
+                        insert.setLong(10, hash);
+                        insert.executeUpdate();
+                        try (ResultSet rs = lastId.executeQuery()) {
+                            rs.next();
+                            id = rs.getLong(1);
+                        }
+                        metrics.added(researcherId, a.citedBy());
+                        inserted++;
+                    } else if (stored == null || stored != hash) {
+                        update.setString(1, researcherName);
+                        update.setString(2, a.authors());
+                        update.setString(3, a.publicationDate());
+                        update.setString(4, a.abs());
+                        update.setString(5, a.link());
+                        update.setString(6, a.keywords());
+                        if (a.citedBy() == null) update.setNull(7, Types.INTEGER); else update.setInt(7, a.citedBy());
+                        update.setLong(8, hash);
+                        update.setString(9, researcherId);
+                        update.setString(10, a.title());
+                        update.executeUpdate();
+                        metrics.changed(researcherId, id, storedCitedBy, a.citedBy());
+                        updated++;
+                    } else {
+                        unchanged++;
+                    }
+                    if (changed) {
+                        ResearchCatalog.writeArticle(session, id, researcherId, a.title(), a.publicationDate(),
+                                a.link(), a.citedBy(), a.authors(), authorIds);
+                    }
                 }
-                ps.executeBatch();
-                c.commit();
+                RefreshSchedule.recordFetch(session, researcherId); // datos al día, venga de Main, --bulk o Refresh
+                return new SyncStats(inserted, updated, unchanged);
+            });
+        }
+
+        /**
+         * Hash FNV-1a de 64 bits de los campos que vienen de SerpApi. Las keywords no entran:
+         * se derivan del título y pueden recalcularse sin que eso cuente como un cambio del artículo.
+         */
+        static long contentHash(String researcherName, Article a) {
+            long h = 0xcbf29ce484222325L;
+            h = fnv(h, researcherName);
+            h = fnv(h, a.authors());
+            h = fnv(h, a.publicationDate());
+            h = fnv(h, a.abs());
+            h = fnv(h, a.link());
+            h = fnv(h, a.citedBy() == null ? null : a.citedBy().toString());
+            return h;
+        }
+
+        private static long fnv(long h, String s) {
+            if (s == null) {
+                h ^= 0xFFFF; // distingue null de ""
+                return h * 0x100000001b3L;
+            }
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= 0x1F; // separador de campo
+            return h * 0x100000001b3L;
+        }
+
+        /** Filas insertadas, actualizadas y sin cambios en una sincronización. */
+        public record SyncStats(int inserted, int updated, int unchanged) {
+            public static final SyncStats EMPTY = new SyncStats(0, 0, 0);
+
+            public SyncStats plus(SyncStats o) {
+                return new SyncStats(inserted + o.inserted, updated + o.updated, unchanged + o.unchanged);
+            }
+
+            public int written() { return inserted + updated; }
+        }
+
+        /**
+         * Guarda los artículos de varios autores en una sola transacción (commit agrupado).
+         * Devuelve las estadísticas de cada autor, en el mismo orden que el lote.
+         */
+        public List<SyncStats> saveAll(List<AuthorArticles> batch) throws SQLException {
+            long t = SAVE_ALL_TIMER.start();
+            List<SyncStats> result;
+            try {
+                result = db.write(session -> {
+                    List<SyncStats> stats = new ArrayList<>(batch.size());
+                    for (AuthorArticles a : batch) {
+                        // se une a esta transacción
+                        stats.add(saveAuthorArticles(a.researcherId(), a.researcherName(), a.articles()));
+                    }
+                    return stats;
+                });
+            } catch (Throwable ex) {
+                // Se deshizo todo el lote, también lo de los autores que ya se habían aplicado a las métricas
+                for (AuthorArticles a : batch) metrics.invalidate(a.researcherId());
+                throw ex;
             }
+            SAVE_ALL_TIMER.stop(t); // incluye el commit
+            return result;
+        }
+
+        public record AuthorArticles(String researcherId, String researcherName, List<Article> articles) {}
+
+        // --- Consultas sobre las tablas normalizadas (índices que cubren cada consulta) ---
+
+        /** Artículos de un investigador, de más a menos citados. */
+        public List<ResearchCatalog.ArticleRef> articlesByResearcher(String researcherId, int limit) throws SQLException {
+            return catalog.articlesByResearcher(researcherId, limit);
+        }
+
+        /** Artículos en los que aparece un coautor (sin distinguir mayúsculas), de más a menos citados. */
+        public List<ResearchCatalog.ArticleRef> articlesByCoauthor(String name, int limit) throws SQLException {
+            return catalog.articlesByCoauthor(name, limit);
+        }
+
+        /** Coautores más frecuentes de un investigador. */
+        public List<ResearchCatalog.Coauthor> coauthors(String researcherId, int limit) throws SQLException {
+            return catalog.coauthors(researcherId, limit);
+        }
+
+        /**
+         * Citas, índice h e i10 calculados con los artículos guardados, sin llamar a SerpApi.
+         * La primera consulta de un investigador lee sus cited_by; después se responde desde memoria.
+         */
+        public AuthorProfile.Metrics metrics(String researcherId) throws SQLException {
+            return metrics.of(researcherId);
+        }
+
+        /** Métricas de un grupo de investigadores tomado como un solo conjunto de artículos. */
+        public AuthorProfile.Metrics metrics(Collection<String> researcherIds) throws SQLException {
+            return metrics.of(researcherIds);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            db.close();
         }
     }
 }
@@ -1,68 +1,68 @@
 package org.example.scholar;
 
-import java.sql.*;
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.Schema;
+import org.example.scholar.db.SchemaMigrator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class Migrate {
-    public static void main(String[] args) throws Exception {
-        String url = "jdbc:sqlite:scholar.db";
+    private static final String USAGE =
+            "Uso: Migrate [--status] [--batch=N]\n" +
+            "  --status   muestra las migraciones aplicadas y pendientes sin ejecutar nada\n" +
+            "  --batch=N  filas por transacción en las reescrituras de datos (por defecto " +
+            SchemaMigrator.DEFAULT_BATCH_SIZE + ")";
 
-        String[] statements = new String[] {
-                "PRAGMA foreign_keys=off;",
-                "BEGIN TRANSACTION;",
-                // (1) Crear tabla temporal con el MISMO esquema y UNIQUE(researcher_id, title)
-                """
-            CREATE TABLE articles_new (
-              id               INTEGER PRIMARY KEY AUTOINCREMENT,
-              researcher_id    TEXT    NOT NULL,
-              researcher_name  TEXT,
-              title            TEXT    NOT NULL,
-              authors          TEXT,
-              publication_date TEXT,
-              abstract         TEXT,
-              link             TEXT,
-              keywords         TEXT,
-              cited_by         INTEGER,
-              created_at       TEXT DEFAULT (datetime('now')),
-              UNIQUE(researcher_id, title)
-            );
-            """,
-                // (2) Insertar datos normalizados y deduplicados
-                """
-            INSERT INTO articles_new (
-              researcher_id, researcher_name, title, authors, publication_date,
-              abstract, link, keywords, cited_by, created_at
-            )
-            SELECT
-              CASE
-                WHEN instr(researcher_id, '&') = 0 THEN researcher_id
-                ELSE substr(researcher_id, 1, instr(researcher_id, '&') - 1)
-              END AS researcher_id_clean,
-              researcher_name,
-              title,
-              authors,
-              publication_date,
-              abstract,
-              link,
-              keywords,
-              MAX(COALESCE(cited_by, 0)) AS cited_by,  -- si había duplicados, conserva el mayor
-              MIN(created_at)                          -- conserva la fecha más antigua
-            FROM articles
-            GROUP BY researcher_id_clean, title;
-            """,
-                // (3) Reemplazar tabla
-                "DROP TABLE articles;",
-                "ALTER TABLE articles_new RENAME TO articles;",
-                "COMMIT;",
-                "PRAGMA foreign_keys=on;"
-        };
+    public static void main(String[] args) throws Exception {
+        boolean statusOnly = false;
+        int batch = SchemaMigrator.DEFAULT_BATCH_SIZE;
+        for (String a : args) {
+            if (a.equals("--status")) statusOnly = true;
+            else if (a.startsWith("--batch=")) batch = Integer.parseInt(a.substring("--batch=".length()));
+            else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
 
-        try (Connection c = DriverManager.getConnection(url)) {
-            for (String sql : statements) {
-                try (Statement st = c.createStatement()) {
-                    st.execute(sql);
-                }
+        if (statusOnly && !Files.exists(Path.of("scholar.db"))) {
+            System.out.println("No existe scholar.db: todas las migraciones están pendientes.");
+            return; // abrirla la crearía
+        }
+        try (ConnectionManager db = new ConnectionManager("jdbc:sqlite:scholar.db",
+                ConnectionManager.Settings.fromSystemProperties())) {
+            SchemaMigrator migrator = new SchemaMigrator(db, Schema.STEPS, batch);
+            if (!statusOnly) {
+                // Cada lote es una transacción propia: las importaciones pueden seguir escribiendo entre lotes
+                // y, si se interrumpe, la siguiente ejecución continúa desde el último lote confirmado
+                long start = System.nanoTime();
+                int applied = migrator.migrate(new Progress());
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("✔ %d migraciones aplicadas en %d ms.%n", applied, ms);
             }
+            printStatus(migrator);
+        }
+    }
+
+    private static void printStatus(SchemaMigrator migrator) throws Exception {
+        for (SchemaMigrator.Status st : migrator.status()) {
+            String state = st.applied() ? "aplicada " + st.appliedAt()
+                    : st.cursor() > 0 ? "en curso (rowid " + st.cursor() + ")" : "pendiente";
+            System.out.printf("  v%-3d %-62s %s%n", st.step().version(), st.step().description(), state);
+        }
+    }
+
+    // Imprime el avance de las reescrituras como mucho una vez por segundo (también al abrir la base en Main)
+    static final class Progress implements SchemaMigrator.Listener {
+        private long lastPrint;
+
+        @Override
+        public void progress(SchemaMigrator.Step step, long cursor, long last) {
+            long now = System.nanoTime();
+            if (cursor < last && now - lastPrint < 1_000_000_000L) return;
+            lastPrint = now;
+            System.out.printf("  v%d: rowid %d / %d (%d%%)%n", step.version(), cursor, last, cursor * 100 / last);
         }
-        System.out.println("✔ Migración completada: IDs normalizados y duplicados consolidados.");
     }
 }
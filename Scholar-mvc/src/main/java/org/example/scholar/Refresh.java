@@ -0,0 +1,211 @@
+package org.example.scholar;
+
+import org.example.scholar.db.QuotaLedger;
+import org.example.scholar.db.RefreshSchedule;
+import org.example.scholar.service.RateLimiter;
+import org.example.scholar.service.ResponseCache;
+import org.example.scholar.service.SerpApiHttp;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Demonio de actualización: mantiene al día a todos los investigadores registrados en refresh_state
+ * sin pasarse del presupuesto mensual de SerpApi.
+ *  - Cola de prioridad por fecha de vencimiento (RefreshSchedule): quien acumula citas rápido vence antes,
+ *    quien no se mueve espera hasta el intervalo máximo.
+ *  - Cada petición se reserva antes en quota_ledger (QuotaLedger), que persiste entre reinicios. La reserva
+ *    la hace SerpApiHttp al enviar, así que cuentan también las de Main, Main --bulk y los demás procesos;
+ *    el demonio sólo lee el consumo para decidir si sigue y cada cuánto.
+ *  - Las peticiones se espacian para repartir lo que queda del presupuesto hasta fin de mes.
+ *  - Descarga y guardado por el mismo camino que Main: fetchTopArticles + saveAuthorArticles.
+ */
+public class Refresh {
+    private static final String USAGE =
+            "Uso: Refresh [--budget=N] [--max=N] [--track=ID,...] [--once] [--status]\n" +
+            "  Mantiene al día a los investigadores registrados sin pasarse de la cuota mensual de SerpApi.\n" +
+            "  --budget=N   peticiones por mes (por defecto -Dserpapi.monthlyBudget o 250)\n" +
+            "  --max=N      artículos por actualización (1-100, por defecto 20)\n" +
+            "  --track=IDs  agrega investigadores (IDs o URLs separados por comas)\n" +
+            "  --once       atiende a los que ya vencieron y termina (sin espaciar las peticiones)\n" +
+            "  --status     muestra la cola y el consumo del mes, sin descargar";
+    private static final Duration RELOAD = Duration.ofMinutes(10); // recoge investigadores agregados por otros procesos
+
+    private final Main.ScholarClient client;
+    private final Main.ScholarDb db;
+    private final RefreshSchedule schedule;
+    private final QuotaLedger ledger;
+    private final int budget;
+    private final int maxArticles;
+    private volatile boolean running = true;
+
+    Refresh(Main.ScholarClient client, Main.ScholarDb db, RefreshSchedule schedule, QuotaLedger ledger,
+            int budget, int maxArticles) {
+        this.client = client;
+        this.db = db;
+        this.schedule = schedule;
+        this.ledger = ledger;
+        this.budget = budget;
+        this.maxArticles = maxArticles;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int budget = Main.monthlyBudget();
+        int max = 20;
+        boolean once = false;
+        boolean status = false;
+        List<String> track = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--budget=")) budget = Integer.parseInt(a.substring("--budget=".length()));
+            else if (a.startsWith("--max=")) max = Integer.parseInt(a.substring("--max=".length()));
+            else if (a.equals("--once")) once = true;
+            else if (a.equals("--status")) status = true;
+            else if (a.startsWith("--track=")) {
+                for (String input : a.substring("--track=".length()).split(",")) {
+                    String id = Main.extractAuthorId(input.trim());
+                    if (id != null && !id.isBlank()) track.add(id);
+                }
+            } else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+        if (max < 1 || max > Main.ScholarClient.MAX_PAGE_SIZE || budget < 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try (Main.ScholarDb db = Main.openDb()) {
+            RefreshSchedule schedule = new RefreshSchedule(db.connections(), RefreshSchedule.Policy.defaults());
+            QuotaLedger ledger = new QuotaLedger(db.connections());
+            if (!track.isEmpty()) {
+                System.out.printf("Registrados %d investigadores nuevos (de %d)%n", schedule.track(track), track.size());
+            }
+            if (status) {
+                printStatus(schedule, ledger, budget);
+                return;
+            }
+            SerpApiHttp.shared().useQuota(ledger.quota(budget)); // el presupuesto de --budget, no el de openDb
+            // Sin caché de respuestas: una actualización tiene que llegar a SerpApi
+            Main.ScholarClient client = new Main.ScholarClient(Main.requireApiKey(), RateLimiter.shared(), ResponseCache.disabled());
+            Refresh refresh = new Refresh(client, db, schedule, ledger, budget, max);
+
+            Thread loop = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                refresh.running = false;
+                loop.interrupt();
+                try {
+                    loop.join(30_000); // deja terminar el guardado en curso y cerrar la base
+                } catch (InterruptedException ignored) {
+                    // salimos igual
+                }
+            }));
+            refresh.run(once);
+        }
+    }
+
+    /** Atiende la cola hasta que se detenga el proceso (o, con once, hasta que no quede nada vencido). */
+    void run(boolean once) throws Exception {
+        Instant now = Instant.now();
+        PriorityQueue<RefreshSchedule.Entry> queue = schedule.load(now);
+        Instant reloadAt = now.plus(RELOAD);
+        Instant nextSlot = now;
+        System.out.printf("Refresh: %d investigadores, presupuesto %d peticiones/mes%n", queue.size(), budget);
+
+        while (running) {
+            now = Instant.now();
+            if (!now.isBefore(reloadAt)) {
+                queue = schedule.load(now);
+                reloadAt = now.plus(RELOAD);
+            }
+            RefreshSchedule.Entry head = queue.peek();
+            if (head == null || head.dueAt().isAfter(now)) {
+                if (once) break;
+                sleepUntil(head == null ? reloadAt : min(head.dueAt(), reloadAt));
+                continue;
+            }
+            if (!once && now.isBefore(nextSlot)) {
+                sleepUntil(min(nextSlot, reloadAt));
+                continue;
+            }
+
+            // Lo consumido por cualquier proceso; la petición se reserva al enviarla (SerpApiHttp)
+            YearMonth month = QuotaLedger.month(now);
+            QuotaLedger.Usage usage = ledger.usage(month, budget);
+            if (usage.remaining() == 0) {
+                System.out.printf("Cuota de %s agotada (%d/%d); se sigue el %s%n", month, usage.used(), budget, usage.end());
+                if (once) break;
+                sleepUntil(usage.end());
+                continue;
+            }
+
+            queue.poll();
+            if (!dispatch(head)) {
+                queue.add(head); // otro proceso gastó lo último entre la lectura y el envío: no cuenta como fallo
+                continue;
+            }
+            RefreshSchedule.Entry next = schedule.entry(head.researcherId(), Instant.now());
+            queue.add(next);
+            usage = ledger.usage(month, budget);
+            nextSlot = now.plus(usage.spacing(now));
+            System.out.printf("      próxima de %s: %s; cuota %d/%d%n", next.researcherId(), next.dueAt(), usage.used(), budget);
+        }
+    }
+
+    // El mismo camino que Main: descarga los artículos más citados y los sincroniza.
+    // Devuelve false si la cuota rechazó la petición (no se envió nada)
+    private boolean dispatch(RefreshSchedule.Entry e) throws Exception {
+        long start = System.nanoTime();
+        try {
+            Main.ScholarClient.FetchResult fr = client.fetchTopArticles(e.researcherId(), maxArticles);
+            Main.ScholarDb.SyncStats st = db.saveAuthorArticles(e.researcherId(), fr.researcherName(), fr.articles());
+            System.out.printf("OK    %s (%s): %d nuevos, %d actualizados, %d sin cambios; %.2f citas/día (%d ms)%n",
+                    e.researcherId(), fr.researcherName(), st.inserted(), st.updated(), st.unchanged(),
+                    e.velocity(), (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException ex) {
+            throw ex; // la base no responde: no tiene sentido seguir
+        } catch (SerpApiHttp.QuotaExceededException ex) {
+            return false;
+        } catch (Exception ex) {
+            String error = ex.getMessage() != null ? ex.getMessage() : ex.toString(); // p. ej. ConnectException
+            schedule.recordFailure(e.researcherId(), Instant.now(), error);
+            System.out.printf("FALLO %s: %s (intento %d)%n", e.researcherId(), error, e.failures() + 1);
+        }
+        return true;
+    }
+
+    private static void printStatus(RefreshSchedule schedule, QuotaLedger ledger, int budget) throws Exception {
+        Instant now = Instant.now();
+        QuotaLedger.Usage usage = ledger.usage(QuotaLedger.month(now), budget);
+        System.out.printf("Cuota %s: %d/%d usadas, %d restantes (una cada %s)%n",
+                usage.month(), usage.used(), budget, usage.remaining(), usage.spacing(now).withNanos(0));
+        PriorityQueue<RefreshSchedule.Entry> queue = schedule.load(now);
+        System.out.printf("%d investigadores en la cola; los primeros:%n", queue.size());
+        for (int i = 0; i < 20 && !queue.isEmpty(); i++) {
+            RefreshSchedule.Entry e = queue.poll();
+            System.out.printf("%-14s última=%-22s %7.2f citas/día  vence=%s%s%n",
+                    e.researcherId(), e.lastFetched() == null ? "nunca" : e.lastFetched().toString(), e.velocity(),
+                    e.dueAt().isAfter(now) ? e.dueAt().toString() : "ya",
+                    e.failures() > 0 ? "  fallos=" + e.failures() : "");
+        }
+    }
+
+    private void sleepUntil(Instant t) {
+        Duration d = Duration.between(Instant.now(), t);
+        if (d.isNegative() || d.isZero()) return;
+        try {
+            Thread.sleep(d);
+        } catch (InterruptedException ex) {
+            running = false; // apagado pedido por el shutdown hook
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
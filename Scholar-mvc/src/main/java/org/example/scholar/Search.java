@@ -0,0 +1,48 @@
+package org.example.scholar;
+
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Search {
+    public static void main(String[] args) throws Exception {
+        String researcher = null;
+        String mode = "terms";
+        int limit = 20;
+        List<String> words = new ArrayList<>();
+        for (String a : args) {
+            if (a.startsWith("--researcher=")) researcher = a.substring("--researcher=".length());
+            else if (a.startsWith("--limit=")) limit = Integer.parseInt(a.substring("--limit=".length()));
+            else if (a.equals("--prefix") || a.equals("--phrase") || a.equals("--raw")) mode = a.substring(2);
+            else words.add(a);
+        }
+        if (words.isEmpty()) {
+            System.err.println("Uso: Search [--researcher=ID] [--limit=N] [--prefix|--phrase|--raw] <palabras...>\n" +
+                    "Ejemplo: Search --prefix carbon nitr");
+            System.exit(1);
+        }
+        String text = String.join(" ", words);
+        String match = switch (mode) {
+            case "prefix" -> SearchIndex.prefix(text);
+            case "phrase" -> SearchIndex.phrase(text);
+            case "raw" -> text; // sintaxis FTS5 tal cual (AND/OR/NOT, NEAR, columna:término...)
+            default -> SearchIndex.allTerms(text);
+        };
+
+        try (Main.ScholarDb db = new Main.ScholarDb("jdbc:sqlite:scholar.db")) {
+            db.init(); // crea el índice si la base es anterior a FTS5
+            long start = System.nanoTime();
+            List<SearchIndex.Hit> hits = new SearchIndex(db.connections()).search(match, researcher, limit);
+            long micros = (System.nanoTime() - start) / 1_000;
+
+            int i = 1;
+            for (SearchIndex.Hit h : hits) {
+                System.out.printf("%02d) %s  [citas=%d, %s]%n",
+                        i++, h.title(), h.citedBy() != null ? h.citedBy() : 0, h.researcherId());
+            }
+            System.out.printf("%d resultados para %s en %d µs%n", hits.size(), match, micros);
+        }
+    }
+}
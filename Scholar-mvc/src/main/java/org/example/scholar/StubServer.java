@@ -0,0 +1,309 @@
+package org.example.scholar;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servidor local que imita el engine google_scholar_author de SerpApi, para pruebas de carga sin gastar cuota.
+ *  - Responde en /search y /search.json con el mismo formato JSON que SerpApi (author, articles,
+ *    cited_by, serpapi_pagination), paginando con start/num.
+ *  - Los datos son sintéticos pero estables: el mismo author_id produce siempre los mismos artículos.
+ *  - Latencia, errores 500 y 429 (con Retry-After) configurables para ejercitar el limitador y los reintentos.
+ * Los clientes se apuntan aquí con -Dserpapi.baseUrl=http://localhost:PUERTO.
+ */
+public class StubServer implements AutoCloseable {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String[] WORDS = {
+            "graphene", "raman", "spectroscopy", "carbon", "nitride", "amorphous", "diamond", "films",
+            "optical", "electronic", "structure", "phonon", "coupling", "doping", "annealing", "stress",
+            "bonding", "tetrahedral", "photonics", "nanotubes", "synthesis", "thermal", "transport",
+            "disorder", "resonant", "dispersion", "layers", "devices", "sensors", "catalysis", "polymers",
+            "interfaces", "deposition", "hydrogenated", "ellipsometry", "modelling", "simulation", "growth"};
+
+    /**
+     * @param port          Puerto (0 = uno libre).
+     * @param latencyMs     Latencia fija de cada respuesta.
+     * @param jitterMs      Latencia extra aleatoria, entre 0 y jitterMs.
+     * @param errorRate     Fracción de peticiones que responden HTTP 500.
+     * @param throttleRate  Fracción de peticiones que responden HTTP 429.
+     * @param retryAfterSec Valor de Retry-After en los 429 (0 = sin cabecera).
+     * @param articles      Publicaciones de cada autor.
+     */
+    public record Config(int port, long latencyMs, long jitterMs, double errorRate, double throttleRate,
+                         int retryAfterSec, int articles) {
+        public static Config defaults() {
+            return new Config(8089, 50, 0, 0.0, 0.0, 1, 60);
+        }
+
+        /** Aplica las opciones --port=, --latency-ms=, --jitter-ms=, --error-rate=, --throttle-rate=,
+         *  --retry-after=, --articles=; devuelve null si la opción no es del servidor. */
+        public Config with(String arg) {
+            String v = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--port=")) return new Config(Integer.parseInt(v), latencyMs, jitterMs, errorRate, throttleRate, retryAfterSec, articles);
+            if (arg.startsWith("--latency-ms=")) return new Config(port, Long.parseLong(v), jitterMs, errorRate, throttleRate, retryAfterSec, articles);
+            if (arg.startsWith("--jitter-ms=")) return new Config(port, latencyMs, Long.parseLong(v), errorRate, throttleRate, retryAfterSec, articles);
+            if (arg.startsWith("--error-rate=")) return new Config(port, latencyMs, jitterMs, Double.parseDouble(v), throttleRate, retryAfterSec, articles);
+            if (arg.startsWith("--throttle-rate=")) return new Config(port, latencyMs, jitterMs, errorRate, Double.parseDouble(v), retryAfterSec, articles);
+            if (arg.startsWith("--retry-after=")) return new Config(port, latencyMs, jitterMs, errorRate, throttleRate, Integer.parseInt(v), articles);
+            if (arg.startsWith("--articles=")) return new Config(port, latencyMs, jitterMs, errorRate, throttleRate, retryAfterSec, Integer.parseInt(v));
+            return null;
+        }
+    }
+
+    static final String USAGE =
+            "[--port=8089] [--latency-ms=50] [--jitter-ms=0] [--error-rate=0] [--throttle-rate=0] [--retry-after=1] [--articles=60]";
+
+    public static void main(String[] args) throws Exception {
+        Config cfg = Config.defaults();
+        for (String a : args) {
+            Config next = cfg.with(a);
+            if (next == null) {
+                System.err.println("Uso: StubServer " + USAGE);
+                System.exit(1);
+            }
+            cfg = next;
+        }
+        StubServer server = start(cfg);
+        System.out.printf("Stub SerpApi en %s (latencia=%d+%d ms, errores=%.1f%%, 429=%.1f%%, %d artículos/autor)%n",
+                server.baseUrl(), cfg.latencyMs(), cfg.jitterMs(), cfg.errorRate() * 100, cfg.throttleRate() * 100,
+                cfg.articles());
+        System.out.println("Usa -Dserpapi.baseUrl=" + server.baseUrl() + " en los clientes. Ctrl+C para salir.");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("Stub: " + server)));
+        Thread.currentThread().join();
+    }
+
+    private final Config cfg;
+    private final HttpServer http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private StubServer(Config cfg) throws IOException {
+        this.cfg = cfg;
+        this.http = HttpServer.create(new InetSocketAddress("127.0.0.1", cfg.port()), 1024);
+        http.createContext("/search", this::handle); // también atiende /search.json
+        http.setExecutor(executor);
+    }
+
+    public static StubServer start(Config cfg) throws IOException {
+        StubServer s = new StubServer(cfg);
+        s.http.start();
+        return s;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + http.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            requests.incrementAndGet();
+            Map<String, String> q = query(ex.getRequestURI().getRawQuery());
+            sleep(cfg.latencyMs() + (cfg.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(cfg.jitterMs() + 1) : 0));
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < cfg.throttleRate()) {
+                throttled.incrementAndGet();
+                if (cfg.retryAfterSec() > 0) ex.getResponseHeaders().set("Retry-After", String.valueOf(cfg.retryAfterSec()));
+                send(ex, 429, error("Your account has run out of searches."));
+                return;
+            }
+            if (roll < cfg.throttleRate() + cfg.errorRate()) {
+                errors.incrementAndGet();
+                send(ex, 500, error("Internal server error (inyectado por el stub)."));
+                return;
+            }
+            if (!"google_scholar_author".equals(q.get("engine"))) {
+                send(ex, 400, error("Unsupported engine: " + q.get("engine")));
+                return;
+            }
+            if (q.get("api_key") == null || q.get("api_key").isBlank()) {
+                send(ex, 401, error("Invalid API key. Your API key should be here: https://serpapi.com/manage-api-key"));
+                return;
+            }
+            String authorId = q.get("author_id");
+            if (authorId == null || authorId.isBlank()) {
+                send(ex, 400, error("Missing query `author_id` parameter."));
+                return;
+            }
+            int start = parseInt(q.get("start"), 0);
+            int num = Math.min(100, Math.max(1, parseInt(q.get("num"), 20)));
+            send(ex, 200, authorPage(authorId, start, num));
+            served.incrementAndGet();
+        }
+    }
+
+    // Página de google_scholar_author con los mismos bloques que usa AuthorJsonParser
+    private byte[] authorPage(String authorId, int start, int num) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        SplittableRandom author = new SplittableRandom(authorId.hashCode());
+        int end = Math.min(cfg.articles(), start + num);
+        try (JsonGenerator g = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("search_metadata");
+            g.writeStringField("status", "Success");
+            g.writeEndObject();
+
+            g.writeObjectFieldStart("search_parameters");
+            g.writeStringField("engine", "google_scholar_author");
+            g.writeStringField("author_id", authorId);
+            g.writeEndObject();
+
+            g.writeObjectFieldStart("author");
+            g.writeStringField("name", "Stub Author " + authorId);
+            g.writeStringField("affiliations", "Universidad de Pruebas " + (1 + author.nextInt(50)));
+            g.writeEndObject();
+
+            g.writeArrayFieldStart("articles");
+            long citations = 0;
+            for (int i = start; i < end; i++) {
+                SplittableRandom r = new SplittableRandom(authorId.hashCode() * 31L + i);
+                int citedBy = r.nextInt(2000);
+                citations += citedBy;
+                g.writeStartObject();
+                g.writeStringField("title", title(r, i));
+                g.writeStringField("link", "https://scholar.google.com/citations?view_op=view_citation&user="
+                        + authorId + "&citation_for_view=" + authorId + ":" + i);
+                g.writeStringField("citation_id", authorId + ":" + i);
+                g.writeStringField("authors", "Stub Author, Coauthor " + r.nextInt(40) + ", Coauthor " + r.nextInt(40));
+                g.writeStringField("publication", "Journal of Stubs " + (1 + r.nextInt(30)) + " (" + (1 + r.nextInt(12)) + ")");
+                g.writeObjectFieldStart("cited_by");
+                g.writeNumberField("value", citedBy);
+                g.writeEndObject();
+                g.writeStringField("year", String.valueOf(1995 + r.nextInt(30)));
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+
+            g.writeObjectFieldStart("cited_by");
+            g.writeArrayFieldStart("table");
+            metric(g, "citations", citations * 3 + author.nextInt(500));
+            metric(g, "h_index", 5 + author.nextInt(60));
+            metric(g, "i10_index", 10 + author.nextInt(200));
+            g.writeEndArray();
+            g.writeEndObject();
+
+            if (end < cfg.articles()) {
+                g.writeObjectFieldStart("serpapi_pagination");
+                g.writeStringField("next", "https://scholar.google.com/citations?user=" + authorId
+                        + "&cstart=" + end + "&pagesize=" + num);
+                g.writeEndObject();
+            }
+            g.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static String title(SplittableRandom r, int i) {
+        StringBuilder sb = new StringBuilder();
+        int words = 4 + r.nextInt(8);
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[r.nextInt(WORDS.length)];
+            if (w == 0) word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            sb.append(word).append(w + 1 < words ? (w == 2 ? " of " : " ") : "");
+        }
+        return sb.append(" ").append(i + 1).toString(); // el índice evita títulos repetidos dentro de un autor
+    }
+
+    private static void metric(JsonGenerator g, String name, long all) throws IOException {
+        g.writeStartObject();
+        g.writeObjectFieldStart(name);
+        g.writeNumberField("all", all);
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    private static byte[] error(String message) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator g = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeStringField("error", message);
+            g.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // Como SerpApi: comprime si el cliente lo pide
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip")) {
+            ByteArrayOutputStream gz = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+                out.write(body);
+            }
+            body = gz.toByteArray();
+            ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> q = new HashMap<>();
+        if (raw == null) return q;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            q.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+
+    private static int parseInt(String s, int def) {
+        try {
+            return s != null ? Integer.parseInt(s) : def;
+        } catch (NumberFormatException ex) {
+            return def;
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long requests() { return requests.get(); }
+    public long served() { return served.get(); }
+    public long errors() { return errors.get(); }
+    public long throttled() { return throttled.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("peticiones=%d ok=%d errores=%d 429=%d", requests(), served(), errors(), throttled());
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.close();
+    }
+}
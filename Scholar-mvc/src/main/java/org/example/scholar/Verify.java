@@ -1,49 +1,122 @@
 package org.example.scholar;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.scholar.db.AuthorMetrics;
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.db.DataQuality;
+import org.example.scholar.db.ResearchCatalog;
+import org.example.scholar.db.Schema;
+import org.example.scholar.db.SchemaMigrator;
+import org.example.scholar.model.AuthorProfile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public class Verify {
+    private static final String USAGE =
+            "Uso: Verify [--json] [--threads=N] [--max-ids=N] [researcher_id]\n" +
+            "  --json       imprime el informe de calidad como JSON\n" +
+            "  --threads=N  hilos para recorrer la tabla (por defecto, núcleos disponibles)\n" +
+            "  --max-ids=N  ids de filas con problemas listados por regla (por defecto 20)";
+
     public static void main(String[] args) throws Exception {
-        String url = "jdbc:sqlite:scholar.db";
-        try (Connection c = DriverManager.getConnection(url)) {
-            // Conteo por autor
-            System.out.println("== Conteo por researcher_id ==");
-            try (Statement st = c.createStatement();
-                 ResultSet rs = st.executeQuery("""
-                     SELECT researcher_id, COUNT(*) AS n_rows
-                     FROM articles
-                     GROUP BY researcher_id
-                 """)) {
-                while (rs.next()) {
-                    System.out.printf("%s -> %d filas%n",
-                            rs.getString("researcher_id"),
-                            rs.getInt("n_rows"));
-                }
+        Path file = Path.of("scholar.db");
+        boolean json = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxIds = 20;
+        String researcher = null;
+        for (String a : args) {
+            if (a.equals("--json")) json = true;
+            else if (a.startsWith("--threads=")) threads = Integer.parseInt(a.substring("--threads=".length()));
+            else if (a.startsWith("--max-ids=")) maxIds = Integer.parseInt(a.substring("--max-ids=".length()));
+            else if (a.startsWith("--") || researcher != null) {
+                System.err.println(USAGE);
+                System.exit(1);
+            } else researcher = a;
+        }
+        if (!Files.exists(file)) {
+            System.err.println("No existe " + file + ": nada que verificar");
+            System.exit(1);
+        }
+
+        // Sólo lectura: el recorrido se reparte por rangos de id entre las conexiones del pool de lectores.
+        // Sin conexión escritora: no crea scholar.db si falta ni cambia su journal_mode
+        try (ConnectionManager db = ConnectionManager.readOnly("jdbc:sqlite:" + file, ConnectionManager.Settings.fromSystemProperties())) {
+            DataQuality.Report report = new DataQuality(db, DataQuality.DEFAULT_RULES).check(threads, maxIds);
+            if (json) {
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(System.out, report);
+                System.out.println();
+            } else {
+                printReport(report);
+            }
+
+            // Sin migrar nada: sólo se avisa de lo que falta
+            List<SchemaMigrator.Status> pending = Schema.migrator(db).status().stream()
+                    .filter(st -> !st.applied())
+                    .toList();
+            if (!pending.isEmpty() && !json) {
+                String versions = pending.stream().map(st -> "v" + st.step().version()).collect(Collectors.joining(", "));
+                System.out.printf("%nAVISO: %d migraciones pendientes (%s): ejecuta Migrate%n", pending.size(), versions);
             }
 
             // Lista para un autor concreto (si pasas su ID como argumento)
-            if (args.length > 0) {
-                String researcher = args[0];
-                System.out.println("\n== Artículos de " + researcher + " ==");
-                try (PreparedStatement ps = c.prepareStatement("""
-                        SELECT title, COALESCE(cited_by, 0) AS cited_by, link
-                        FROM articles
-                        WHERE researcher_id = ?
-                        ORDER BY cited_by DESC, title
-                    """)) {
-                    ps.setString(1, researcher);
-                    try (ResultSet rs = ps.executeQuery()) {
-                        int i = 1;
-                        while (rs.next()) {
-                            System.out.printf("%02d) %s  [citas=%d]%n   %s%n",
-                                    i++,
-                                    rs.getString("title"),
-                                    rs.getInt("cited_by"),
-                                    rs.getString("link"));
-                        }
-                    }
+            if (researcher != null && !json) {
+                if (applied(pending, Schema.CATALOG_VERSION)) {
+                    printArticles(new ResearchCatalog(db), researcher, report.rowsByResearcher().get(researcher));
+                } else {
+                    System.out.println("\n(faltan las tablas normalizadas para listar los artículos: ejecuta Migrate)");
+                }
+                // Citas, h e i10 calculados con lo guardado, sin llamar a SerpApi (las copias cuentan una vez)
+                if (applied(pending, Schema.CANONICAL_VERSION)) {
+                    AuthorProfile.Metrics m = new AuthorMetrics(db).of(researcher);
+                    System.out.printf("%nMétricas locales: citas=%d  h-index=%d  i10-index=%d%n", m.citations, m.hIndex, m.i10Index);
                 }
             }
         }
     }
+
+    private static boolean applied(List<SchemaMigrator.Status> pending, int version) {
+        return pending.stream().noneMatch(st -> st.step().version() == version);
+    }
+
+    private static void printReport(DataQuality.Report report) {
+        // Conteo por autor (sale del mismo recorrido que las reglas)
+        System.out.println("== Conteo por researcher_id ==");
+        for (Map.Entry<String, Long> e : report.rowsByResearcher().entrySet()) {
+            System.out.printf("%s -> %d filas%n", e.getKey(), e.getValue());
+        }
+
+        System.out.printf("%n== Calidad de datos (%d filas, %d ms) ==%n", report.rows(), report.millis());
+        for (DataQuality.RuleResult r : report.rules()) {
+            if (r.passed()) {
+                System.out.printf("OK   %-24s %s%n", r.rule(), r.description());
+            } else {
+                System.out.printf("FAIL %-24s %s: %d filas%n", r.rule(), r.description(), r.violations());
+                String ids = r.ids().stream().map(String::valueOf).collect(Collectors.joining(", "));
+                System.out.printf("     ids: %s%s%n", ids, r.violations() > r.ids().size() ? ", ..." : "");
+            }
+        }
+    }
+
+    private static void printArticles(ResearchCatalog catalog, String researcher, Long rows) throws SQLException {
+        System.out.println("\n== Artículos de " + researcher + " ==");
+        // Sale del índice (researcher_id, cited_by DESC, ...) de la tabla article: sin ordenar ni leer la tabla
+        List<ResearchCatalog.ArticleRef> articles = catalog.articlesByResearcher(researcher, Integer.MAX_VALUE);
+        int i = 1;
+        for (ResearchCatalog.ArticleRef a : articles) {
+            System.out.printf("%02d) %s  [citas=%d]%n   %s%n",
+                    i++,
+                    a.title(),
+                    a.citedBy() == null ? 0 : a.citedBy(),
+                    a.link());
+        }
+        if (articles.isEmpty() && rows != null) {
+            System.out.println("(las tablas normalizadas aún no tienen sus filas: ejecuta Migrate)");
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.example.scholar.controller;
 
 import org.example.scholar.model.AuthorProfile;
+import org.example.scholar.service.AuthorProfileCache;
 import org.example.scholar.service.ScholarUtils;
 import org.example.scholar.service.SerpApiClient;
 import org.example.scholar.view.ConsoleView;
@@ -11,21 +12,40 @@ import org.example.scholar.view.ConsoleView;
  * Responsibilities:
  *  - Accept user input (either author_id or Google Scholar profile URL).
  *  - Extract a valid author_id.
- *  - Fetch the author profile via the API client.
+ *  - Fetch the author profile via the API client, through an in-memory cache
+ *    that also merges concurrent requests for the same author.
  *  - Forward results or errors to the View for display.
  */
 public class AuthorController {
     private final SerpApiClient client; // Handles API requests
     private final ConsoleView view;     // Handles console output
+    private final AuthorProfileCache cache; // Recently fetched profiles
 
     /**
      * Constructor for AuthorController.
+     * Profiles are cached for 15 minutes, up to 1000 authors.
      * @param client The SerpApi client used to make API requests.
      * @param view   The console view used to display results or errors.
      */
     public AuthorController(SerpApiClient client, ConsoleView view) {
+        this(client, view, new AuthorProfileCache(1000, 15 * 60_000L));
+    }
+
+    /**
+     * Constructor for AuthorController with an explicit profile cache.
+     * @param client The SerpApi client used to make API requests.
+     * @param view   The console view used to display results or errors.
+     * @param cache  The cache shared by every call to this controller.
+     */
+    public AuthorController(SerpApiClient client, ConsoleView view, AuthorProfileCache cache) {
         this.client = client;
         this.view = view;
+        this.cache = cache;
+    }
+
+    /** The profile cache, to inspect its hit/miss/coalesced counters. */
+    public AuthorProfileCache cache() {
+        return cache;
     }
 
     /**
@@ -51,8 +71,8 @@ public class AuthorController {
                 return;
             }
 
-            // Call the API client to fetch the profile
-            AuthorProfile profile = client.getAuthorProfile(authorId);
+            // Fetch the profile (cached; concurrent callers for the same author share one request)
+            AuthorProfile profile = cache.get(authorId, client::getAuthorProfile);
 
             // Send the profile to the View for display
             view.showAuthorProfile(profile);
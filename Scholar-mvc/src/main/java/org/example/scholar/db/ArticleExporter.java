@@ -0,0 +1,262 @@
+package org.example.scholar.db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ArticleExporter streams the articles table to NDJSON or CSV.
+ *
+ * How it works:
+ *  - One forward-only query on a reader connection, in id order; rows are never collected.
+ *  - Text columns are read as their raw UTF-8 bytes and escaped byte by byte straight into
+ *    one reused buffer, so no String is built per field.
+ *  - The buffer is written to a FileChannel when full, optionally through gzip.
+ * Memory use is constant whatever the number of rows. The export sees one consistent
+ * snapshot of the database (WAL), while imports keep writing.
+ */
+public class ArticleExporter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final String[] COLUMNS = {
+            "id", "researcher_id", "researcher_name", "title", "authors", "publication_date",
+            "abstract", "link", "keywords", "cited_by", "created_at"};
+    private static final int ID = 1, CITED_BY = 10; // numeric columns (1-based)
+
+    public enum Format { NDJSON, CSV }
+
+    /**
+     * Which rows to export; every field is optional (null = no restriction).
+     * @param researcherId Only this researcher.
+     * @param fromDate     publication_date on or after this day (YYYY-MM-DD).
+     * @param toDate       publication_date on or before this day (YYYY-MM-DD).
+     */
+    public record Filter(String researcherId, String fromDate, String toDate) {
+        public static final Filter ALL = new Filter(null, null, null);
+    }
+
+    /** Rows exported and bytes produced before compression. */
+    public record Result(long rows, long bytes) {}
+
+    private final ConnectionManager db;
+
+    public ArticleExporter(ConnectionManager db) {
+        this.db = db;
+    }
+
+    /** Exports the matching rows to a file, replacing it if it exists. */
+    public Result export(Filter filter, Format format, Path out, boolean gzip) throws SQLException, IOException {
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Sink sink = gzip ? new GzipSink(channel) : new ChannelSink(channel);
+            Result r = export(filter, format, sink);
+            sink.finish();
+            return r;
+        }
+    }
+
+    private Result export(Filter filter, Format format, Sink sink) throws SQLException, IOException {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS)).append(" FROM articles");
+        List<String> args = new ArrayList<>();
+        where(sql, args, "researcher_id = ?", filter.researcherId());
+        where(sql, args, "publication_date >= ?", filter.fromDate());
+        where(sql, args, "publication_date <= ?", filter.toDate());
+        sql.append(" ORDER BY id");
+
+        Encoder enc = new Encoder(sink);
+        try {
+            long rows = db.read(s -> {
+                PreparedStatement ps = s.prepare(sql.toString());
+                for (int i = 0; i < args.size(); i++) ps.setString(i + 1, args.get(i));
+                ps.setFetchSize(1000);
+                long n = 0;
+                if (format == Format.CSV) csvHeader(enc);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (format == Format.CSV) csvRow(rs, enc); else jsonRow(rs, enc);
+                        n++;
+                    }
+                }
+                return n;
+            });
+            enc.flush();
+            return new Result(rows, enc.total);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static void where(StringBuilder sql, List<String> args, String condition, String value) {
+        if (value == null) return;
+        sql.append(args.isEmpty() ? " WHERE " : " AND ").append(condition);
+        args.add(value);
+    }
+
+    private static void jsonRow(ResultSet rs, Encoder enc) throws SQLException {
+        enc.put('{');
+        for (int c = 1; c <= COLUMNS.length; c++) {
+            if (c > 1) enc.put(',');
+            enc.put('"').ascii(COLUMNS[c - 1]).put('"').put(':');
+            if (c == ID || c == CITED_BY) {
+                long v = rs.getLong(c);
+                if (rs.wasNull()) enc.ascii("null"); else enc.number(v);
+            } else {
+                byte[] v = rs.getBytes(c);
+                if (v == null) enc.ascii("null"); else enc.jsonString(v);
+            }
+        }
+        enc.put('}').put('\n');
+    }
+
+    private static void csvHeader(Encoder enc) {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (c > 0) enc.put(',');
+            enc.ascii(COLUMNS[c]);
+        }
+        enc.put('\r').put('\n');
+    }
+
+    // RFC 4180: CRLF line ends, fields quoted only when needed; NULL is an empty field
+    private static void csvRow(ResultSet rs, Encoder enc) throws SQLException {
+        for (int c = 1; c <= COLUMNS.length; c++) {
+            if (c > 1) enc.put(',');
+            if (c == ID || c == CITED_BY) {
+                long v = rs.getLong(c);
+                if (!rs.wasNull()) enc.number(v);
+            } else {
+                byte[] v = rs.getBytes(c);
+                if (v != null) enc.csvField(v);
+            }
+        }
+        enc.put('\r').put('\n');
+    }
+
+    /** Escapes into one reused buffer and hands it to the sink when full. */
+    private static final class Encoder {
+        private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+        private final Sink sink;
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] digits = new byte[20];
+        long total;
+
+        Encoder(Sink sink) {
+            this.sink = sink;
+        }
+
+        Encoder put(char c) {
+            if (!buf.hasRemaining()) flush();
+            buf.put((byte) c);
+            return this;
+        }
+
+        Encoder ascii(String s) {
+            for (int i = 0; i < s.length(); i++) put(s.charAt(i));
+            return this;
+        }
+
+        void number(long v) {
+            if (v == Long.MIN_VALUE) { ascii(Long.toString(v)); return; }
+            if (v < 0) { put('-'); v = -v; }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            while (n > 0) put((char) digits[--n]);
+        }
+
+        // UTF-8 passes through untouched; only quotes, backslashes and control characters are escaped
+        void jsonString(byte[] v) {
+            put('"');
+            for (byte b : v) {
+                int c = b & 0xFF;
+                switch (c) {
+                    case '"' -> put('\\').put('"');
+                    case '\\' -> put('\\').put('\\');
+                    case '\n' -> put('\\').put('n');
+                    case '\r' -> put('\\').put('r');
+                    case '\t' -> put('\\').put('t');
+                    default -> {
+                        if (c < 0x20) {
+                            put('\\').put('u').put('0').put('0').put((char) HEX[c >> 4]).put((char) HEX[c & 0xF]);
+                        } else {
+                            if (!buf.hasRemaining()) flush();
+                            buf.put(b);
+                        }
+                    }
+                }
+            }
+            put('"');
+        }
+
+        void csvField(byte[] v) {
+            boolean quote = false;
+            for (byte b : v) {
+                if (b == ',' || b == '"' || b == '\n' || b == '\r') { quote = true; break; }
+            }
+            if (quote) put('"');
+            for (byte b : v) {
+                if (b == '"') put('"');
+                if (!buf.hasRemaining()) flush();
+                buf.put(b);
+            }
+            if (quote) put('"');
+        }
+
+        void flush() {
+            buf.flip();
+            total += buf.remaining();
+            try {
+                sink.write(buf);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            buf.clear();
+        }
+    }
+
+    private interface Sink {
+        void write(ByteBuffer data) throws IOException;
+        void finish() throws IOException;
+    }
+
+    private record ChannelSink(FileChannel channel) implements Sink {
+        public void write(ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) channel.write(data);
+        }
+
+        public void finish() {
+            // every buffer was already written to the channel
+        }
+    }
+
+    private static final class GzipSink implements Sink {
+        private final GZIPOutputStream out;
+
+        GzipSink(FileChannel channel) throws IOException {
+            // The stream is not closed here: the caller owns and closes the channel
+            this.out = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+        }
+
+        public void write(ByteBuffer data) throws IOException {
+            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            data.position(data.limit());
+        }
+
+        public void finish() throws IOException {
+            out.finish();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.scholar.db;
+
+import org.example.scholar.model.AuthorProfile;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AuthorMetrics computes citations, h-index and i10-index from the articles stored locally,
+ * so they do not cost a SerpApi call.
+ *
+ * How it works:
+ *  - Each researcher's cited_by values live in memory as one sorted int[] (NULL counts as 0).
+ *    It is read from the database the first time the researcher is asked for.
+ *  - The writer keeps the arrays current: a new article inserts its value and a changed
+ *    cited_by moves one value, by binary search and a short array shift. Nothing is re-sorted.
+ *  - Total citations are kept as a running sum. h-index and i10-index are binary searches over
+ *    the sorted values, so answering is O(log n) per researcher, also for a cohort of several.
+ *  - A paper stored under several researchers of a cohort counts once. The articles of a
+ *    researcher that belong to a duplicate group (article_canonical, see {@link DuplicateIndex})
+ *    are loaded with the values and kept current the same way. Per call the cohort's groups are
+ *    merged in memory and all but the most cited copy of each are subtracted, again by binary
+ *    search over their sorted values.
+ * Loads and updates both run under the writer lock of {@link ConnectionManager}, so a load can
+ * never miss or double-count a concurrent update; over a read-only manager they use a reader.
+ * New duplicate groups are seen after {@link #invalidateAll}, which DuplicateIndex calls when it
+ * saves; writes made by another process are only seen after {@link #invalidate}. The numbers
+ * cover stored articles only and may be lower than the ones Google Scholar reports for the full
+ * profile.
+ */
+public class AuthorMetrics {
+    private static final String LOAD_SQL = "SELECT COALESCE(cited_by, 0) FROM articles WHERE researcher_id = ?";
+    // Articles of a researcher that belong to a duplicate group, with the group's canonical id
+    private static final String GROUPED_SQL = """
+        SELECT a.id, COALESCE(c.canonical_id, a.id), COALESCE(a.cited_by, 0)
+        FROM articles a
+        LEFT JOIN article_canonical c ON c.article_id = a.id
+        WHERE a.researcher_id = ?
+          AND (c.article_id IS NOT NULL OR EXISTS (SELECT 1 FROM article_canonical d WHERE d.canonical_id = a.id))
+    """;
+
+    private final ConnectionManager db;
+    private final ConcurrentHashMap<String, Citations> loaded = new ConcurrentHashMap<>();
+
+    public AuthorMetrics(ConnectionManager db) {
+        this.db = db;
+    }
+
+    /** Metrics of one researcher (zeros if nothing is stored for them). */
+    public AuthorProfile.Metrics of(String researcherId) throws SQLException {
+        return of(List.of(researcherId));
+    }
+
+    /**
+     * Metrics of a cohort taken as one body of work: citations and i10 are sums, and the
+     * h-index is computed over all their articles together. Duplicate copies count once.
+     */
+    public AuthorProfile.Metrics of(Collection<String> researcherIds) throws SQLException {
+        List<Citations> cohort = new ArrayList<>(researcherIds.size());
+        for (String id : researcherIds) cohort.add(citations(id));
+
+        long citations = 0;
+        int i10 = 0, papers = 0;
+        Map<Long, List<Integer>> groups = new HashMap<>();
+        for (Citations c : cohort) {
+            synchronized (c) {
+                citations += c.total;
+                i10 += c.atLeast(10);
+                papers += c.size;
+                for (Copy g : c.grouped.values()) {
+                    groups.computeIfAbsent(g.canonicalId(), k -> new ArrayList<>()).add(g.citedBy());
+                }
+            }
+        }
+        Citations copies = copies(groups);
+        citations -= copies.total;
+        i10 -= copies.atLeast(10);
+        papers -= copies.size;
+        // Largest h with at least h articles cited h or more times
+        int lo = 0, hi = papers;
+        while (lo < hi) {
+            int h = (lo + hi + 1) >>> 1;
+            int count = -copies.atLeast(h);
+            for (Citations c : cohort) {
+                synchronized (c) {
+                    count += c.atLeast(h);
+                }
+            }
+            if (count >= h) lo = h; else hi = h - 1;
+        }
+
+        AuthorProfile.Metrics m = new AuthorProfile.Metrics();
+        m.citations = (int) Math.max(0, Math.min(Integer.MAX_VALUE, citations));
+        m.hIndex = lo;
+        m.i10Index = Math.max(0, i10);
+        return m;
+    }
+
+    /**
+     * Records a new article. Called by the writer inside its transaction; call
+     * {@link #invalidate} if that transaction rolls back.
+     */
+    public void added(String researcherId, Integer citedBy) {
+        Citations c = loaded.get(researcherId);
+        if (c == null) return; // not loaded yet: the first read will see the row
+        synchronized (c) {
+            c.insert(value(citedBy));
+        }
+    }
+
+    /** Records a cited_by change of a stored article (same rules as {@link #added}). */
+    public void changed(String researcherId, long articleId, Integer before, Integer after) {
+        int from = value(before), to = value(after);
+        if (from == to) return;
+        Citations c = loaded.get(researcherId);
+        if (c == null) return;
+        synchronized (c) {
+            if (!c.remove(from)) {
+                loaded.remove(researcherId, c); // out of step with the table: reload on next read
+                return;
+            }
+            c.insert(to);
+            c.grouped.computeIfPresent(articleId, (id, g) -> new Copy(g.canonicalId(), to));
+        }
+    }
+
+    /** Forgets a researcher; the next read loads them again from the database. */
+    public void invalidate(String researcherId) {
+        loaded.remove(researcherId);
+    }
+
+    /** Forgets every researcher, for example after article_canonical changed. */
+    public void invalidateAll() {
+        loaded.clear();
+    }
+
+    private Citations citations(String researcherId) throws SQLException {
+        Citations c = loaded.get(researcherId);
+        if (c != null) return c;
+        // Under the writer lock no sync can commit between this read and the put. A read-only
+        // manager has no writer, and no update can come through this instance either
+        ConnectionManager.Work<Citations> load = s -> {
+            Citations existing = loaded.get(researcherId);
+            if (existing != null) return existing;
+            PreparedStatement ps = s.prepare(LOAD_SQL);
+            ps.setString(1, researcherId);
+            Citations fresh = new Citations();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) fresh.append(rs.getInt(1));
+            }
+            fresh.sort();
+            PreparedStatement grouped = s.prepare(GROUPED_SQL);
+            grouped.setString(1, researcherId);
+            try (ResultSet rs = grouped.executeQuery()) {
+                while (rs.next()) fresh.grouped.put(rs.getLong(1), new Copy(rs.getLong(2), rs.getInt(3)));
+            }
+            loaded.put(researcherId, fresh);
+            return fresh;
+        };
+        return db.isReadOnly() ? db.read(load) : db.write(load);
+    }
+
+    // cited_by of every duplicate copy in the cohort except the most cited one of each group
+    private static Citations copies(Map<Long, List<Integer>> groups) {
+        Citations copies = new Citations();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() < 2) continue;
+            group.sort(Comparator.reverseOrder());
+            for (int i = 1; i < group.size(); i++) copies.append(value(group.get(i)));
+        }
+        copies.sort();
+        return copies;
+    }
+
+    private static int value(Integer citedBy) {
+        return citedBy == null || citedBy < 0 ? 0 : citedBy;
+    }
+
+    // An article of a duplicate group: the group's canonical id and the article's cited_by
+    private record Copy(long canonicalId, int citedBy) {}
+
+    // cited_by values of one researcher in ascending order, and their grouped articles by id
+    private static final class Citations {
+        int[] values = new int[16];
+        int size;
+        long total;
+        final Map<Long, Copy> grouped = new HashMap<>();
+
+        void append(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+            total += v;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        void insert(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            int at = lowerBound(v);
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = v;
+            size++;
+            total += v;
+        }
+
+        boolean remove(int v) {
+            int at = lowerBound(v);
+            if (at == size || values[at] != v) return false;
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            total -= v;
+            return true;
+        }
+
+        /** Number of values >= v. */
+        int atLeast(int v) {
+            return size - lowerBound(v);
+        }
+
+        // First index whose value is >= v
+        private int lowerBound(int v) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.scholar.db;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CitationHistory keeps a time series of cited_by values per article and answers
+ * growth queries over it.
+ *
+ * Storage:
+ *  - One row per (article, day) in which cited_by changed; days are counted from 1970-01-01 (UTC).
+ *  - Rows hold the change (delta) instead of the absolute value, so the value on any day is the
+ *    sum of deltas up to it and the growth between two days is the sum of deltas in between.
+ *  - The table is WITHOUT ROWID keyed by (article_id, day), which makes the primary key a covering
+ *    index for per-article ranges; a second covering index on (day, article_id, delta) serves
+ *    "what rose most since X" queries.
+ *  - An article's first sample is the whole cited_by found when it was stored: a baseline, not
+ *    growth. Growth queries leave it out, so an article first stored inside the window (e.g. by a
+ *    bulk import) reports only what it gained after that, as RefreshSchedule's velocity does.
+ * Samples are recorded by triggers on articles, so every write path feeds the history.
+ */
+public class CitationHistory {
+    // Days since the Unix epoch (julianday of 1970-01-01 is 2440587.5)
+    private static final String TODAY = "CAST(julianday('now') - 2440587.5 AS INTEGER)";
+    // Leaves out the baseline: the first sample of the article the row h belongs to
+    private static final String AFTER_BASELINE =
+            "h.day > (SELECT MIN(f.day) FROM citation_history f WHERE f.article_id = h.article_id)";
+
+    private final ConnectionManager db;
+
+    public CitationHistory(ConnectionManager db) {
+        this.db = db;
+    }
+
+    /** Creates the table, index and triggers if missing, seeding history from current values once. */
+    public static void createSchema(Statement st) throws SQLException {
+        boolean existed;
+        try (ResultSet rs = st.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type='table' AND name='citation_history'")) {
+            existed = rs.next();
+        }
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS citation_history (
+              article_id INTEGER NOT NULL,
+              day        INTEGER NOT NULL,
+              delta      INTEGER NOT NULL,
+              PRIMARY KEY (article_id, day)
+            ) WITHOUT ROWID
+        """);
+        st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_citation_history_day ON citation_history(day, article_id, delta)");
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_citations_insert AFTER INSERT ON articles
+            WHEN new.cited_by IS NOT NULL
+            BEGIN
+              INSERT INTO citation_history (article_id, day, delta)
+              VALUES (new.id, %s, new.cited_by)
+              ON CONFLICT(article_id, day) DO UPDATE SET delta = delta + excluded.delta;
+            END
+        """.formatted(TODAY));
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_citations_update AFTER UPDATE OF cited_by ON articles
+            WHEN new.cited_by IS NOT old.cited_by
+            BEGIN
+              INSERT INTO citation_history (article_id, day, delta)
+              VALUES (new.id, %s, COALESCE(new.cited_by, 0) - COALESCE(old.cited_by, 0))
+              ON CONFLICT(article_id, day) DO UPDATE SET delta = delta + excluded.delta;
+            END
+        """.formatted(TODAY));
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_citations_delete AFTER DELETE ON articles
+            BEGIN
+              DELETE FROM citation_history WHERE article_id = old.id;
+            END
+        """);
+        if (!existed) {
+            // First sample of every stored article: its current value, dated when the row was created
+            st.executeUpdate("""
+                INSERT OR IGNORE INTO citation_history (article_id, day, delta)
+                SELECT id, CAST(julianday(COALESCE(created_at, 'now')) - 2440587.5 AS INTEGER), cited_by
+                FROM articles
+                WHERE cited_by IS NOT NULL
+            """);
+        }
+    }
+
+    /** cited_by of an article as of the end of the given day (0 if nothing was recorded yet). */
+    public int valueAt(long articleId, LocalDate date) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(
+                    "SELECT COALESCE(SUM(delta), 0) FROM citation_history WHERE article_id = ? AND day <= ?");
+            ps.setLong(1, articleId);
+            ps.setLong(2, date.toEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
+    }
+
+    /**
+     * Citations gained by an article after {@code from} and up to {@code to} (both inclusive days).
+     * The value it had when first stored is not counted.
+     */
+    public int growthBetween(long articleId, LocalDate from, LocalDate to) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("""
+                SELECT COALESCE(SUM(h.delta), 0) FROM citation_history h
+                WHERE h.article_id = ? AND h.day > ? AND h.day <= ? AND %s
+            """.formatted(AFTER_BASELINE));
+            ps.setLong(1, articleId);
+            ps.setLong(2, from.toEpochDay());
+            ps.setLong(3, to.toEpochDay());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
+    }
+
+    /** Growth of every article of a researcher between two days, largest first. */
+    public List<Growth> growthBetween(String researcherId, LocalDate from, LocalDate to) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("""
+                SELECT a.id, a.researcher_id, a.title, COALESCE(SUM(h.delta), 0) AS growth
+                FROM articles a
+                LEFT JOIN citation_history h ON h.article_id = a.id AND h.day > ? AND h.day <= ? AND %s
+                WHERE a.researcher_id = ?
+                GROUP BY a.id
+                ORDER BY growth DESC, a.title
+            """.formatted(AFTER_BASELINE));
+            ps.setLong(1, from.toEpochDay());
+            ps.setLong(2, to.toEpochDay());
+            ps.setString(3, researcherId);
+            return readGrowth(ps);
+        });
+    }
+
+    /** Articles that gained the most citations after {@code since}, largest first; baselines do not count. */
+    public List<Growth> fastestRising(LocalDate since, int limit) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("""
+                SELECT a.id, a.researcher_id, a.title, g.growth
+                FROM (SELECT h.article_id, SUM(h.delta) AS growth
+                      FROM citation_history h
+                      WHERE h.day > ? AND %s
+                      GROUP BY h.article_id
+                      ORDER BY growth DESC
+                      LIMIT ?) g
+                JOIN articles a ON a.id = g.article_id
+                ORDER BY g.growth DESC
+            """.formatted(AFTER_BASELINE));
+            ps.setLong(1, since.toEpochDay());
+            ps.setInt(2, limit);
+            return readGrowth(ps);
+        });
+    }
+
+    /** Full series of an article, as absolute cited_by values per day of change. */
+    public List<Point> series(long articleId) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(
+                    "SELECT day, delta FROM citation_history WHERE article_id = ? ORDER BY day");
+            ps.setLong(1, articleId);
+            List<Point> points = new ArrayList<>();
+            int value = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    value += rs.getInt(2);
+                    points.add(new Point(LocalDate.ofEpochDay(rs.getLong(1)), value));
+                }
+            }
+            return points;
+        });
+    }
+
+    private static List<Growth> readGrowth(PreparedStatement ps) throws SQLException {
+        List<Growth> out = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new Growth(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+            }
+        }
+        return out;
+    }
+
+    public record Growth(long articleId, String researcherId, String title, int growth) {}
+
+    public record Point(LocalDate day, int citedBy) {}
+}
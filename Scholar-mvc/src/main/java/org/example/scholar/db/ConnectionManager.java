@@ -0,0 +1,239 @@
+package org.example.scholar.db;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionManager keeps long-lived SQLite connections open for the lifetime of the
+ * application instead of opening the database file for every operation.
+ *
+ * Layout:
+ *  - One writer connection. SQLite allows a single writer, so writes are serialized
+ *    with a lock and each {@link #write(Work)} call is one transaction.
+ *  - A small pool of read-only connections. With journal_mode=WAL they read a consistent
+ *    snapshot while the writer commits.
+ * Every connection keeps its own cache of prepared statements (see {@link Session#prepare}).
+ * Tools that only inspect the database use {@link #readOnly}: no writer at all.
+ */
+public class ConnectionManager implements AutoCloseable {
+
+    /** Pragmas applied to every connection. */
+    public record Settings(String synchronous, long mmapSize, int cacheSizeKb, int readers, int busyTimeoutMs) {
+        /**
+         * Reads sqlite.synchronous (default NORMAL), sqlite.mmapSize (bytes, default 256 MB),
+         * sqlite.cacheSizeKb (default 65536), sqlite.readers (default 4) and
+         * sqlite.busyTimeoutMs (default 5000) from system properties.
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    System.getProperty("sqlite.synchronous", "NORMAL"),
+                    Long.getLong("sqlite.mmapSize", 256L << 20),
+                    Integer.getInteger("sqlite.cacheSizeKb", 65536),
+                    Integer.getInteger("sqlite.readers", 4),
+                    Integer.getInteger("sqlite.busyTimeoutMs", 5000));
+        }
+    }
+
+    /** A unit of work run on one connection. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Session session) throws SQLException;
+    }
+
+    private final String url;
+    private final Settings settings;
+    private final boolean readOnly;
+    private final Session writer; // null when readOnly
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<Session> idleReaders;
+    private final List<Session> allReaders = new ArrayList<>();
+    private volatile boolean closed;
+
+    public ConnectionManager(String url, Settings settings) throws SQLException {
+        this(url, settings, false);
+    }
+
+    private ConnectionManager(String url, Settings settings, boolean readOnly) throws SQLException {
+        this.url = url;
+        this.settings = settings;
+        this.readOnly = readOnly;
+        this.idleReaders = new ArrayBlockingQueue<>(Math.max(1, settings.readers()));
+        this.writer = readOnly ? null : new Session(open(false));
+    }
+
+    /**
+     * A manager with readers only. The file is opened read-only: a missing database is an error
+     * instead of a new empty one, the journal mode is left as it is, and {@link #write} throws.
+     */
+    public static ConnectionManager readOnly(String url, Settings settings) throws SQLException {
+        ConnectionManager db = new ConnectionManager(url, settings, true);
+        try {
+            db.read(s -> null); // fail here, not on first use, when the file is missing
+        } catch (SQLException ex) {
+            db.close();
+            throw ex;
+        }
+        return db;
+    }
+
+    /** True for a manager built by {@link #readOnly}. */
+    public boolean isReadOnly() { return readOnly; }
+
+    /**
+     * Runs work on the writer connection inside a transaction: committed when it returns,
+     * rolled back when it throws. Nested calls from the same thread join the outer transaction.
+     */
+    public <T> T write(Work<T> work) throws SQLException {
+        if (readOnly) throw new SQLException("ConnectionManager is read-only");
+        writeLock.lock();
+        try {
+            ensureOpen();
+            if (writeLock.getHoldCount() > 1) return work.run(writer);
+            Connection c = writer.connection();
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(writer);
+                c.commit();
+                return result;
+            } catch (Throwable ex) {
+                // Errors too: re-enabling autocommit below would otherwise commit the partial transaction
+                try {
+                    c.rollback();
+                } catch (SQLException rollbackFailed) {
+                    ex.addSuppressed(rollbackFailed);
+                }
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Runs work on a pooled read-only connection (autocommit, one snapshot per statement). */
+    public <T> T read(Work<T> work) throws SQLException {
+        Session s = borrowReader();
+        try {
+            return work.run(s);
+        } finally {
+            idleReaders.offer(s);
+        }
+    }
+
+    private Session borrowReader() throws SQLException {
+        ensureOpen();
+        Session s = idleReaders.poll();
+        if (s != null) return s;
+        synchronized (allReaders) {
+            if (allReaders.size() < Math.max(1, settings.readers())) {
+                Session created = new Session(open(true));
+                allReaders.add(created);
+                return created;
+            }
+        }
+        try {
+            return idleReaders.take(); // every reader is busy: wait for one
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", ex);
+        }
+    }
+
+    private Connection open(boolean reader) throws SQLException {
+        Connection c;
+        if (readOnly) {
+            SQLiteConfig config = new SQLiteConfig();
+            config.setReadOnly(true); // SQLITE_OPEN_READONLY: never creates the file
+            c = DriverManager.getConnection(url, config.toProperties());
+        } else {
+            c = DriverManager.getConnection(url);
+        }
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA busy_timeout=" + settings.busyTimeoutMs());
+            if (!reader) st.execute("PRAGMA journal_mode=WAL"); // persistent in the file
+            st.execute("PRAGMA synchronous=" + settings.synchronous());
+            st.execute("PRAGMA cache_size=-" + settings.cacheSizeKb());
+            st.execute("PRAGMA mmap_size=" + settings.mmapSize());
+            st.execute("PRAGMA temp_store=MEMORY");
+            if (reader) st.execute("PRAGMA query_only=1");
+        } catch (SQLException ex) {
+            c.close();
+            throw ex;
+        }
+        return c;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("ConnectionManager is closed");
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) return;
+        closed = true;
+        SQLException first = null;
+        writeLock.lock();
+        try {
+            if (writer != null) writer.close();
+        } catch (SQLException ex) {
+            first = ex;
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (allReaders) {
+            for (Session s : allReaders) {
+                try {
+                    s.close();
+                } catch (SQLException ex) {
+                    if (first == null) first = ex;
+                }
+            }
+            allReaders.clear();
+        }
+        if (first != null) throw first;
+    }
+
+    /** A connection plus its prepared statement cache. Only used by one thread at a time. */
+    public static final class Session {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private Session(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection connection() { return connection; }
+
+        /**
+         * Returns a prepared statement for sql, compiling it only the first time.
+         * The statement belongs to the cache: callers must not close it.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null) {
+                ps = connection.prepareStatement(sql);
+                statements.put(sql, ps);
+            }
+            return ps;
+        }
+
+        private void close() throws SQLException {
+            for (PreparedStatement ps : statements.values()) ps.close();
+            statements.clear();
+            connection.close();
+        }
+    }
+}
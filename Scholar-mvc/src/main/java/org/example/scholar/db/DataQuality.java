@@ -0,0 +1,231 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.AuthorIdScanner;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * DataQuality validates the articles table against a set of rules in a single scan.
+ *
+ * How it works:
+ *  - The table is split into rowid ranges that worker threads read in parallel on the reader
+ *    pool; every row is read once and handed to every rule.
+ *  - Row rules flag a row on its own (missing fields, bad formats). Unique rules flag rows
+ *    whose key was already seen in a lower id; each range remembers its keys and the ranges
+ *    are merged in id order, so the first occurrence is never reported.
+ *  - The same scan counts rows per researcher_id.
+ * The report gives, for every rule, how many rows break it and the lowest offending ids.
+ */
+public class DataQuality {
+    private static final int RANGE_SIZE = 20_000;
+
+    private static final String SELECT_SQL = """
+        SELECT id, researcher_id, researcher_name, title, authors, publication_date,
+               abstract, link, keywords, cited_by, typeof(cited_by), created_at
+        FROM articles WHERE id BETWEEN ? AND ?
+    """;
+
+    /** One articles row as seen by the rules; citedByType is SQLite's typeof(cited_by). */
+    public record Row(long id, String researcherId, String researcherName, String title, String authors,
+                      String publicationDate, String abs, String link, String keywords,
+                      long citedBy, String citedByType, String createdAt) {}
+
+    /**
+     * A check. Exactly one of invalid and key is set; build them with {@link #row} and {@link #unique}.
+     * @param invalid Row rule: true when the row breaks it.
+     * @param key     Unique rule: rows with the same non-null key after the first one break it.
+     */
+    public record Rule(String name, String description, Predicate<Row> invalid, Function<Row, String> key) {
+        public static Rule row(String name, String description, Predicate<Row> invalid) {
+            return new Rule(name, description, invalid, null);
+        }
+
+        public static Rule unique(String name, String description, Function<Row, String> key) {
+            return new Rule(name, description, null, key);
+        }
+    }
+
+    /** The rules checks.sql used to run, adapted to the articles table. */
+    public static final List<Rule> DEFAULT_RULES = List.of(
+            Rule.row("required", "researcher_id, title, authors and link are present and not blank",
+                    r -> isBlank(r.researcherId()) || isBlank(r.title()) || isBlank(r.authors()) || isBlank(r.link())),
+            Rule.row("researcher_id.format", "researcher_id is a bare author id (no '&hl=...', no spaces)",
+                    r -> r.researcherId() != null && (!AuthorIdScanner.looksLikeId(r.researcherId())
+                            || !r.researcherId().strip().equals(r.researcherId()))),
+            Rule.row("cited_by.valid", "cited_by is NULL or a non-negative integer",
+                    r -> !r.citedByType().equals("null") && (!r.citedByType().equals("integer") || r.citedBy() < 0)),
+            Rule.row("publication_date.format", "publication_date is empty or starts with a 4-digit year",
+                    r -> !isBlank(r.publicationDate()) && !startsWithYear(r.publicationDate())),
+            Rule.unique("link.unique", "no two articles share a link",
+                    r -> isBlank(r.link()) ? null : r.link()));
+
+    /**
+     * Result of one rule.
+     * @param violations Number of offending rows.
+     * @param ids        The lowest offending ids, at most the limit passed to {@link #check}.
+     */
+    public record RuleResult(String rule, String description, long violations, List<Long> ids) {
+        public boolean passed() { return violations == 0; }
+    }
+
+    /** Rows scanned, time taken, rows per researcher and one result per rule, in rule order. */
+    public record Report(long rows, long millis, Map<String, Long> rowsByResearcher, List<RuleResult> rules) {
+        public boolean passed() {
+            return rules.stream().allMatch(RuleResult::passed);
+        }
+    }
+
+    private final ConnectionManager db;
+    private final List<Rule> rules;
+
+    public DataQuality(ConnectionManager db, List<Rule> rules) {
+        this.db = db;
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * Scans the table once with the given number of threads.
+     * @param maxIds Offending ids kept per rule; the counts are always exact.
+     */
+    public Report check(int threads, int maxIds) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long[] bounds = db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), -1) FROM articles")) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        });
+
+        List<Future<Partial>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads))) {
+            for (long from = bounds[0]; from <= bounds[1]; from += RANGE_SIZE) {
+                long lo = from, hi = Math.min(bounds[1], from + RANGE_SIZE - 1);
+                futures.add(pool.submit(() -> scanRange(lo, hi, maxIds)));
+            }
+        }
+
+        // Merged in id order: a key seen in an earlier range makes every later occurrence a violation
+        Partial total = new Partial(rules.size());
+        for (Future<Partial> f : futures) {
+            try {
+                total.merge(f.get(), rules, maxIds);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof SQLException sql) throw sql;
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        List<RuleResult> results = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            Rule r = rules.get(i);
+            results.add(new RuleResult(r.name(), r.description(), total.violations[i], total.ids.get(i)));
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        return new Report(total.rows, ms, new TreeMap<>(total.byResearcher), results);
+    }
+
+    private Partial scanRange(long fromId, long toId, int maxIds) throws SQLException {
+        Partial p = new Partial(rules.size());
+        db.read(s -> {
+            PreparedStatement ps = s.prepare(SELECT_SQL);
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Row row = new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                            rs.getString(9), rs.getLong(10), rs.getString(11), rs.getString(12));
+                    p.rows++;
+                    if (row.researcherId() != null) p.byResearcher.merge(row.researcherId(), 1L, Long::sum);
+                    for (int i = 0; i < rules.size(); i++) {
+                        Rule rule = rules.get(i);
+                        if (rule.invalid() != null) {
+                            if (rule.invalid().test(row)) p.flag(i, row.id(), maxIds);
+                        } else {
+                            String key = rule.key().apply(row);
+                            if (key != null && p.keys.get(i).putIfAbsent(key, row.id()) != null) {
+                                p.flag(i, row.id(), maxIds);
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        return p;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static boolean startsWithYear(String s) {
+        if (s.length() < 4) return false;
+        for (int i = 0; i < 4; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    // Counts of one range (or of every range merged so far); ids are kept in increasing order
+    private static final class Partial {
+        long rows;
+        final long[] violations;
+        final List<List<Long>> ids = new ArrayList<>();
+        final List<Map<String, Long>> keys = new ArrayList<>(); // key -> first id, unique rules only
+        final Map<String, Long> byResearcher = new HashMap<>();
+
+        Partial(int rules) {
+            violations = new long[rules];
+            for (int i = 0; i < rules; i++) {
+                ids.add(new ArrayList<>());
+                keys.add(new HashMap<>());
+            }
+        }
+
+        void flag(int rule, long id, int maxIds) {
+            violations[rule]++;
+            if (ids.get(rule).size() < maxIds) ids.get(rule).add(id);
+        }
+
+        void merge(Partial next, List<Rule> rules, int maxIds) {
+            rows += next.rows;
+            next.byResearcher.forEach((k, v) -> byResearcher.merge(k, v, Long::sum));
+            for (int i = 0; i < rules.size(); i++) {
+                if (rules.get(i).key() == null) {
+                    violations[i] += next.violations[i];
+                    for (long id : next.ids.get(i)) if (ids.get(i).size() < maxIds) ids.get(i).add(id);
+                    continue;
+                }
+                // The range's own duplicates plus its first occurrences of keys an earlier range had
+                List<Long> flagged = new ArrayList<>(next.ids.get(i));
+                violations[i] += next.violations[i];
+                Map<String, Long> seen = keys.get(i);
+                for (Map.Entry<String, Long> e : next.keys.get(i).entrySet()) {
+                    if (seen.putIfAbsent(e.getKey(), e.getValue()) != null) {
+                        violations[i]++;
+                        flagged.add(e.getValue());
+                    }
+                }
+                flagged.sort(null);
+                for (long id : flagged) if (ids.get(i).size() < maxIds) ids.get(i).add(id);
+            }
+        }
+    }
+}
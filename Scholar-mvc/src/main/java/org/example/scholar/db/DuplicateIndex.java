@@ -0,0 +1,382 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.LongHashSet;
+import org.example.scholar.service.MinHash;
+import org.example.scholar.service.ScholarUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * DuplicateIndex finds articles stored more than once, usually the same paper saved under each
+ * co-author's profile or with a slightly different title, and maps each copy to one canonical row.
+ *
+ * The search is near-linear instead of comparing every pair:
+ *  1. One parallel scan computes a MinHash signature of every article (see {@link MinHash}) and
+ *     keeps only its band keys.
+ *  2. For each band the (key, article) entries are sorted; articles sharing a key are candidates.
+ *     Small buckets yield every pair, large ones (a paper with many co-author profiles) a chain.
+ *  3. Candidates are confirmed on the exact feature sets: Jaccard at or above the threshold, the
+ *     same numbers in both titles ("Part 1" is not "Part 2"), the same full title when both have
+ *     a subtitle, and a shared surname when both list authors.
+ *  4. Confirmed pairs are joined with union-find; the lowest id of each group is the canonical one.
+ *
+ * Decisions go to article_canonical(article_id, canonical_id, similarity, source). Rows are
+ * mapped, never deleted, so each researcher keeps their list; aggregates that must count a paper
+ * once read the canonical_articles view. A run replaces the rows with source 'minhash' and keeps
+ * any other (for example ones entered by hand).
+ */
+public class DuplicateIndex {
+    public static final double DEFAULT_THRESHOLD = 0.8;
+
+    private static final int RANGE_SIZE = 20_000;
+    private static final int HASHES = 128;
+    private static final int ROWS_PER_BAND = 8; // 16 bands: pairs above ~0.7 similarity become candidates
+    private static final int MAX_BUCKET = 20;
+    private static final String SOURCE = "minhash";
+
+    private static final String SELECT_SQL =
+            "SELECT id, title, authors FROM articles WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    private final ConnectionManager db;
+    private final AuthorMetrics metrics; // null when no metrics follow this database
+    private final MinHash minHash = new MinHash(HASHES, ROWS_PER_BAND);
+
+    /** One decision: article_id is a copy of canonical_id. */
+    public record Mapping(long articleId, long canonicalId, double similarity) {}
+
+    /**
+     * Outcome of a run.
+     * @param candidates Distinct pairs that shared an LSH bucket.
+     * @param confirmed  Candidates that passed the exact comparison.
+     * @param groups     Groups of two or more articles.
+     * @param mappings   One per non-canonical article, by article id.
+     */
+    public record Result(long articles, long candidates, long confirmed, int groups,
+                         List<Mapping> mappings, long millis) {}
+
+    public DuplicateIndex(ConnectionManager db) {
+        this(db, null);
+    }
+
+    /** Also makes metrics drop their duplicate groups whenever a run saves new ones. */
+    public DuplicateIndex(ConnectionManager db, AuthorMetrics metrics) {
+        this.db = db;
+        this.metrics = metrics;
+    }
+
+    /** Creates the mapping table, its view and the trigger that follows deletions. */
+    public static void createSchema(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS article_canonical (
+              article_id   INTEGER PRIMARY KEY,
+              canonical_id INTEGER NOT NULL,
+              similarity   REAL    NOT NULL,
+              source       TEXT    NOT NULL DEFAULT 'minhash',
+              decided_at   TEXT DEFAULT (datetime('now'))
+            )
+        """);
+        st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_article_canonical_canonical ON article_canonical(canonical_id)");
+        st.executeUpdate("""
+            CREATE VIEW IF NOT EXISTS canonical_articles AS
+            SELECT a.* FROM articles a
+            WHERE NOT EXISTS (SELECT 1 FROM article_canonical c WHERE c.article_id = a.id)
+        """);
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_canonical_delete AFTER DELETE ON articles
+            BEGIN
+              DELETE FROM article_canonical WHERE article_id = old.id OR canonical_id = old.id;
+            END
+        """);
+    }
+
+    /**
+     * Finds the duplicate groups with the given number of threads.
+     * @param threshold Minimum Jaccard similarity of two feature sets to call them the same article.
+     * @param save      Replace the 'minhash' rows of article_canonical with the result.
+     */
+    public Result run(int threads, double threshold, boolean save) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        int bands = minHash.bands();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            // --- 1. Band keys of every article, ranges concatenated in id order ---
+            long[] bounds = idBounds();
+            List<Callable<Signatures>> scans = new ArrayList<>();
+            for (long from = bounds[0]; from <= bounds[1]; from += RANGE_SIZE) {
+                long lo = from, hi = Math.min(bounds[1], from + RANGE_SIZE - 1);
+                scans.add(() -> signRange(lo, hi));
+            }
+            int n = 0;
+            List<Signatures> parts = invokeAll(pool, scans);
+            for (Signatures p : parts) n += p.size;
+            long[] ids = new long[n];
+            int[] keys = new int[n * bands];
+            int at = 0;
+            for (Signatures p : parts) {
+                System.arraycopy(p.ids, 0, ids, at, p.size);
+                System.arraycopy(p.keys, 0, keys, at * bands, p.size * bands);
+                at += p.size;
+            }
+
+            // --- 2. Candidate pairs from each band's buckets ---
+            List<Callable<long[]>> bucketing = new ArrayList<>();
+            for (int b = 0; b < bands; b++) {
+                int band = b;
+                int size = n;
+                bucketing.add(() -> bandPairs(keys, size, bands, band));
+            }
+            LongHashSet seen = new LongHashSet(Math.max(16, n));
+            long[] pairs = new long[16];
+            int pairCount = 0;
+            for (long[] bandPairs : invokeAll(pool, bucketing)) {
+                for (long pair : bandPairs) {
+                    if (!seen.add(pair)) continue;
+                    if (pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairCount * 2);
+                    pairs[pairCount++] = pair;
+                }
+            }
+
+            // --- 3. Exact comparison, reading back only the articles that are in a pair ---
+            boolean[] needed = new boolean[n];
+            for (int i = 0; i < pairCount; i++) {
+                needed[(int) (pairs[i] >>> 32)] = true;
+                needed[(int) pairs[i]] = true;
+            }
+            Entry[] entries = readEntries(pool, ids, needed);
+            int[] parent = new int[n];
+            for (int i = 0; i < n; i++) parent[i] = i;
+            long confirmed = 0;
+            for (int i = 0; i < pairCount; i++) {
+                int a = (int) (pairs[i] >>> 32), b = (int) pairs[i];
+                if (entries[a] == null || entries[b] == null) continue; // deleted since the scan
+                if (sameArticle(entries[a], entries[b], threshold)) {
+                    confirmed++;
+                    union(parent, a, b);
+                }
+            }
+
+            // --- 4. Groups: the lowest id (lowest index) is the canonical article ---
+            List<Mapping> mappings = new ArrayList<>();
+            Set<Integer> roots = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                int r = find(parent, i);
+                if (r == i) continue;
+                roots.add(r);
+                double similarity = MinHash.jaccard(entries[i].features.hashes(), entries[r].features.hashes());
+                mappings.add(new Mapping(ids[i], ids[r], similarity));
+            }
+            if (save) save(mappings);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            return new Result(n, pairCount, confirmed, roots.size(), mappings, ms);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Canonical id of an article: the one it was mapped to, or itself. */
+    public long canonicalId(long articleId) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("SELECT canonical_id FROM article_canonical WHERE article_id = ?");
+            ps.setLong(1, articleId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : articleId;
+            }
+        });
+    }
+
+    private void save(List<Mapping> mappings) throws SQLException {
+        db.write(s -> {
+            PreparedStatement delete = s.prepare("DELETE FROM article_canonical WHERE source = ?");
+            delete.setString(1, SOURCE);
+            delete.executeUpdate();
+            // Rows from another source are decisions made elsewhere and win
+            PreparedStatement insert = s.prepare("""
+                INSERT OR IGNORE INTO article_canonical(article_id, canonical_id, similarity, source)
+                VALUES (?, ?, ?, ?)
+            """);
+            for (Mapping m : mappings) {
+                insert.setLong(1, m.articleId());
+                insert.setLong(2, m.canonicalId());
+                insert.setDouble(3, m.similarity());
+                insert.setString(4, SOURCE);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            // Under the writer lock: no load can read the old groups after this and cache them again
+            if (metrics != null) metrics.invalidateAll();
+            return null;
+        });
+    }
+
+    private long[] idBounds() throws SQLException {
+        return db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), -1) FROM articles")) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        });
+    }
+
+    private Signatures signRange(long fromId, long toId) throws SQLException {
+        int bands = minHash.bands();
+        Signatures p = new Signatures(bands);
+        db.read(s -> {
+            PreparedStatement ps = s.prepare(SELECT_SQL);
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+            int[] bandKeys = new int[bands];
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    MinHash.Features f = MinHash.features(rs.getString(2), rs.getString(3));
+                    minHash.bandKeys(minHash.signature(f.hashes()), bandKeys);
+                    p.add(rs.getLong(1), bandKeys);
+                }
+            }
+            return null;
+        });
+        return p;
+    }
+
+    // Pairs (lower index << 32 | higher index) of articles sharing this band's key
+    private static long[] bandPairs(int[] keys, int n, int bands, int band) {
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) sorted[i] = ((long) keys[i * bands + band] << 32) | i;
+        Arrays.sort(sorted); // equal keys end up adjacent, indexes ascending within a key
+        long[] out = new long[16];
+        int count = 0;
+        for (int start = 0; start < n; ) {
+            int end = start + 1;
+            while (end < n && (sorted[end] >>> 32) == (sorted[start] >>> 32)) end++;
+            int size = end - start;
+            long need = size <= MAX_BUCKET ? (long) size * (size - 1) / 2 : size - 1;
+            if (count + need > out.length) out = Arrays.copyOf(out, (int) Math.max(out.length * 2L, count + need));
+            if (size <= MAX_BUCKET) {
+                for (int i = start; i < end; i++) {
+                    for (int j = i + 1; j < end; j++) out[count++] = pair(sorted[i], sorted[j]);
+                }
+            } else {
+                for (int i = start; i + 1 < end; i++) out[count++] = pair(sorted[i], sorted[i + 1]);
+            }
+            start = end;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static long pair(long lo, long hi) {
+        return ((long) (int) lo << 32) | ((int) hi & 0xFFFFFFFFL);
+    }
+
+    private Entry[] readEntries(ExecutorService pool, long[] ids, boolean[] needed)
+            throws SQLException, InterruptedException {
+        Entry[] entries = new Entry[ids.length];
+        List<Callable<Void>> reads = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += RANGE_SIZE) {
+            int lo = from, hi = Math.min(ids.length, from + RANGE_SIZE);
+            boolean any = false;
+            for (int i = lo; i < hi && !any; i++) any = needed[i];
+            if (!any) continue;
+            reads.add(() -> db.read(s -> {
+                PreparedStatement ps = s.prepare(SELECT_SQL);
+                ps.setLong(1, ids[lo]);
+                ps.setLong(2, ids[hi - 1]);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int i = Arrays.binarySearch(ids, lo, hi, rs.getLong(1));
+                        if (i >= 0 && needed[i]) entries[i] = Entry.of(rs.getString(2), rs.getString(3));
+                    }
+                }
+                return null;
+            }));
+        }
+        invokeAll(pool, reads);
+        return entries;
+    }
+
+    private static boolean sameArticle(Entry a, Entry b, double threshold) {
+        if (MinHash.jaccard(a.features.hashes(), b.features.hashes()) < threshold) return false;
+        if (!a.numbers.equals(b.numbers)) return false;
+        // "X: part 1" and "X: part 2" share the main title; with both subtitles present they must agree
+        if (a.features.hasSubtitle() && b.features.hasSubtitle() && !a.fullTitle.equals(b.fullTitle)) return false;
+        if (a.surnames.isEmpty() || b.surnames.isEmpty()) return true;
+        for (String s : a.surnames) if (b.surnames.contains(s)) return true;
+        return false;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // The lower index becomes the root, so every group is rooted at its lowest id
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a), rb = find(parent, b);
+        if (ra < rb) parent[rb] = ra;
+        else if (rb < ra) parent[ra] = rb;
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService pool, List<Callable<T>> tasks)
+            throws SQLException, InterruptedException {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> f : pool.invokeAll(tasks)) {
+            try {
+                results.add(f.get());
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof SQLException sql) throw sql;
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+        return results;
+    }
+
+    // Band keys of one id range, bands ints per article
+    private static final class Signatures {
+        final int bands;
+        long[] ids = new long[256];
+        int[] keys;
+        int size;
+
+        Signatures(int bands) {
+            this.bands = bands;
+            this.keys = new int[256 * bands];
+        }
+
+        void add(long id, int[] bandKeys) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                keys = Arrays.copyOf(keys, size * 2 * bands);
+            }
+            ids[size] = id;
+            System.arraycopy(bandKeys, 0, keys, size * bands, bands);
+            size++;
+        }
+    }
+
+    private record Entry(MinHash.Features features, String fullTitle, List<String> numbers, Set<String> surnames) {
+        static Entry of(String title, String authors) {
+            Set<String> surnames = new HashSet<>();
+            for (String name : ScholarUtils.splitAuthors(authors)) surnames.add(MinHash.normalize(ScholarUtils.surname(name)));
+            surnames.remove("");
+            String full = MinHash.normalize(title == null ? "" : title);
+            List<String> numbers = new ArrayList<>();
+            for (String word : full.split(" ")) if (!word.isEmpty() && Character.isDigit(word.charAt(0))) numbers.add(word);
+            return new Entry(MinHash.features(title, authors), full, numbers, surnames);
+        }
+    }
+}
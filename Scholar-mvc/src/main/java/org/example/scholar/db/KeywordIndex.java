@@ -0,0 +1,206 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.KeywordExtractor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * KeywordIndex keeps the corpus statistics used by {@link KeywordExtractor} in the database
+ * and runs the batch jobs over the whole articles table.
+ *
+ * Tables:
+ *  - keyword_stats(term, df): number of titles containing each term.
+ *  - keyword_corpus(documents): number of titles the statistics were computed from.
+ * Both jobs split the table into rowid ranges and process them in parallel on the reader pool;
+ * re-keywording writes each range back in one transaction and only touches rows whose
+ * keywords actually change.
+ */
+public class KeywordIndex {
+    private static final int RANGE_SIZE = 20_000;
+
+    private final ConnectionManager db;
+    private final KeywordExtractor extractor;
+
+    public KeywordIndex(ConnectionManager db, KeywordExtractor extractor) {
+        this.db = db;
+        this.extractor = extractor;
+    }
+
+    public static void createSchema(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS keyword_stats (
+              term TEXT PRIMARY KEY,
+              df   INTEGER NOT NULL
+            ) WITHOUT ROWID
+        """);
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS keyword_corpus (
+              id        INTEGER PRIMARY KEY CHECK (id = 1),
+              documents INTEGER NOT NULL
+            )
+        """);
+    }
+
+    /** Loads the stored statistics (empty statistics if they were never computed). */
+    public KeywordExtractor.CorpusStats load() throws SQLException {
+        return db.read(s -> {
+            long documents = 0;
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT documents FROM keyword_corpus WHERE id = 1")) {
+                if (rs.next()) documents = rs.getLong(1);
+            }
+            if (documents == 0) return KeywordExtractor.CorpusStats.EMPTY;
+            Map<String, Integer> df = new HashMap<>();
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT term, df FROM keyword_stats")) {
+                while (rs.next()) df.put(rs.getString(1), rs.getInt(2));
+            }
+            return new KeywordExtractor.CorpusStats(documents, df);
+        });
+    }
+
+    /** Recomputes document frequencies over every title in parallel, stores and returns them. */
+    public KeywordExtractor.CorpusStats recompute(int threads) throws SQLException, InterruptedException {
+        List<PartialStats> parts = forEachRange(threads, this::countRange);
+
+        Map<String, Integer> df = new HashMap<>();
+        long documents = 0;
+        for (PartialStats p : parts) {
+            documents += p.documents();
+            p.df().forEach((term, count) -> df.merge(term, count[0], Integer::sum));
+        }
+
+        long docs = documents;
+        db.write(s -> {
+            try (Statement st = s.connection().createStatement()) {
+                st.executeUpdate("DELETE FROM keyword_stats");
+            }
+            PreparedStatement ins = s.prepare("INSERT INTO keyword_stats (term, df) VALUES (?, ?)");
+            for (Map.Entry<String, Integer> e : df.entrySet()) {
+                ins.setString(1, e.getKey());
+                ins.setInt(2, e.getValue());
+                ins.addBatch();
+            }
+            ins.executeBatch();
+            PreparedStatement corpus = s.prepare("""
+                INSERT INTO keyword_corpus (id, documents) VALUES (1, ?)
+                ON CONFLICT(id) DO UPDATE SET documents = excluded.documents
+            """);
+            corpus.setLong(1, docs);
+            corpus.executeUpdate();
+            return null;
+        });
+
+        KeywordExtractor.CorpusStats stats = new KeywordExtractor.CorpusStats(docs, df);
+        extractor.useStats(stats);
+        return stats;
+    }
+
+    /**
+     * Recomputes the keywords of every article with the extractor's current statistics.
+     * @return number of rows whose keywords changed.
+     */
+    public long rekeywordAll(int threads) throws SQLException, InterruptedException {
+        long changed = 0;
+        for (long n : forEachRange(threads, this::rekeywordRange)) changed += n;
+        return changed;
+    }
+
+    private PartialStats countRange(long fromId, long toId) throws SQLException {
+        // int[] as a mutable counter avoids boxing on every increment
+        Map<String, int[]> df = new HashMap<>();
+        long[] documents = {0};
+        readTitles(fromId, toId, (id, title, keywords) -> {
+            documents[0]++;
+            extractor.distinctTerms(title, term -> df.computeIfAbsent(term, t -> new int[1])[0]++);
+        });
+        return new PartialStats(documents[0], df);
+    }
+
+    private long rekeywordRange(long fromId, long toId) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        readTitles(fromId, toId, (id, title, keywords) -> {
+            String k = extractor.keywords(title);
+            if (!k.equals(keywords)) {
+                ids.add(id);
+                values.add(k);
+            }
+        });
+        if (ids.isEmpty()) return 0;
+        return db.write(s -> {
+            PreparedStatement ps = s.prepare("UPDATE articles SET keywords = ? WHERE id = ?");
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setString(1, values.get(i));
+                ps.setLong(2, ids.get(i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return (long) ids.size();
+        });
+    }
+
+    private void readTitles(long fromId, long toId, RowHandler handler) throws SQLException {
+        db.read(s -> {
+            PreparedStatement ps = s.prepare(
+                    "SELECT id, title, keywords FROM articles WHERE id BETWEEN ? AND ?");
+            ps.setLong(1, fromId);
+            ps.setLong(2, toId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) handler.row(rs.getLong(1), rs.getString(2), rs.getString(3));
+            }
+            return null;
+        });
+    }
+
+    // Splits [min(id), max(id)] into RANGE_SIZE chunks and runs the task on each, in parallel
+    private <T> List<T> forEachRange(int threads, RangeTask<T> task) throws SQLException, InterruptedException {
+        long[] bounds = db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), -1) FROM articles")) {
+                rs.next();
+                return new long[]{rs.getLong(1), rs.getLong(2)};
+            }
+        });
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads))) {
+            for (long from = bounds[0]; from <= bounds[1]; from += RANGE_SIZE) {
+                long lo = from, hi = Math.min(bounds[1], from + RANGE_SIZE - 1);
+                futures.add(pool.submit(() -> task.run(lo, hi)));
+            }
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> f : futures) {
+            try {
+                results.add(f.get());
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof SQLException sql) throw sql;
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface RangeTask<T> {
+        T run(long fromId, long toId) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void row(long id, String title, String keywords);
+    }
+
+    private record PartialStats(long documents, Map<String, int[]> df) {}
+}
@@ -0,0 +1,98 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.SerpApiHttp;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * QuotaLedger records how many SerpApi requests each calendar month (UTC) has spent, so a budget
+ * holds across restarts and across every process sharing the database.
+ *
+ * A request is reserved before it is sent, in its own write transaction: the check and the
+ * increment are one UPDATE, so two processes can never both take the last request of the month.
+ * A reservation is not returned when the request fails; the ledger errs on the side of spending less.
+ * Reservations are made by SerpApiHttp, where every client's requests go out (see {@link #quota}).
+ */
+public class QuotaLedger {
+    private final ConnectionManager db;
+
+    /**
+     * Requests spent in a month.
+     * @param budget Budget of the last reservation (the latest value passed to {@link #tryReserve}).
+     */
+    public record Usage(YearMonth month, int budget, int used) {
+        public int remaining() { return Math.max(0, budget - used); }
+
+        /**
+         * Gap between requests that spreads the remaining budget evenly over the rest of the month,
+         * or the time left in the month when nothing remains.
+         */
+        public Duration spacing(Instant now) {
+            Duration left = Duration.between(now, end());
+            if (left.isNegative()) return Duration.ZERO;
+            return remaining() == 0 ? left : left.dividedBy(remaining());
+        }
+
+        /** First instant of the next month. */
+        public Instant end() {
+            return month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+    }
+
+    public QuotaLedger(ConnectionManager db) {
+        this.db = db;
+    }
+
+    public static void createSchema(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS quota_ledger (
+              month  TEXT    PRIMARY KEY,
+              budget INTEGER NOT NULL,
+              used   INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
+        """);
+    }
+
+    /** The current month in UTC. */
+    public static YearMonth month(Instant now) {
+        return YearMonth.from(now.atOffset(ZoneOffset.UTC));
+    }
+
+    /** Takes one request of the month's budget; false when the budget is already spent. */
+    public boolean tryReserve(YearMonth month, int budget) throws SQLException {
+        return db.write(s -> {
+            PreparedStatement open = s.prepare("INSERT OR IGNORE INTO quota_ledger(month, budget, used) VALUES (?, ?, 0)");
+            open.setString(1, month.toString());
+            open.setInt(2, budget);
+            open.executeUpdate();
+            PreparedStatement take = s.prepare("UPDATE quota_ledger SET used = used + 1, budget = ? WHERE month = ? AND used < ?");
+            take.setInt(1, budget);
+            take.setString(2, month.toString());
+            take.setInt(3, budget);
+            return take.executeUpdate() == 1;
+        });
+    }
+
+    /** This ledger as the quota of SerpApiHttp: each request is charged to the month it is sent in. */
+    public SerpApiHttp.Quota quota(int budget) {
+        return () -> tryReserve(month(Instant.now()), budget);
+    }
+
+    /** Usage of a month; months without requests report 0 used of the given budget. */
+    public Usage usage(YearMonth month, int budget) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("SELECT used FROM quota_ledger WHERE month = ?");
+            ps.setString(1, month.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return new Usage(month, budget, rs.next() ? rs.getInt(1) : 0);
+            }
+        });
+    }
+}
@@ -0,0 +1,248 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.AuthorIdScanner;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * RefreshSchedule decides when each tracked researcher is due for a new fetch.
+ *
+ * Policy:
+ *  - Citation velocity is what a researcher's articles gained per day over the last windowDays,
+ *    read from citation_history. The first sample of every article is left out: it is the
+ *    value found when the article was first stored, not growth.
+ *  - The refresh interval shrinks with velocity, maxInterval / (1 + velocity / referenceVelocity),
+ *    clamped to [minInterval, maxInterval]: active authors come back often, dormant ones rarely.
+ *  - A researcher is due at last fetch + interval. Never-fetched researchers are due at once, and
+ *    failures back off exponentially from the last attempt.
+ * Due times do not change as the clock moves, so a PriorityQueue ordered by them stays valid and
+ * its head is always the most overdue researcher.
+ *
+ * State lives in refresh_state(researcher_id, last_fetched_at, last_attempt_at, failures, last_error),
+ * with times in epoch seconds. Every successful save stamps it (see {@link #recordFetch}), whichever
+ * path fetched the data.
+ */
+public class RefreshSchedule {
+    private static final String TRACKED_SQL = """
+        SELECT researcher_id, last_fetched_at, last_attempt_at, failures FROM refresh_state
+    """;
+    // Growth per researcher since a day, without each article's first sample
+    private static final String VELOCITY_SQL = """
+        SELECT a.researcher_id, SUM(h.delta)
+        FROM citation_history h
+        JOIN articles a ON a.id = h.article_id
+        WHERE h.day >= ?
+          AND h.day > (SELECT MIN(f.day) FROM citation_history f WHERE f.article_id = h.article_id)
+        GROUP BY a.researcher_id
+    """;
+
+    private final ConnectionManager db;
+    private final Policy policy;
+
+    /**
+     * @param minInterval       Shortest time between two fetches of the same researcher.
+     * @param maxInterval       Longest time a researcher may go without a fetch.
+     * @param referenceVelocity Citations per day at which the interval is half of maxInterval.
+     * @param windowDays        Days of citation history that define the velocity.
+     */
+    public record Policy(Duration minInterval, Duration maxInterval, double referenceVelocity, int windowDays) {
+        public static Policy defaults() {
+            return new Policy(Duration.ofDays(1), Duration.ofDays(30), 1.0, 30);
+        }
+
+        public Duration interval(double velocity) {
+            double seconds = maxInterval.toSeconds() / (1 + Math.max(0, velocity) / referenceVelocity);
+            long clamped = Math.max(minInterval.toSeconds(), Math.min(maxInterval.toSeconds(), (long) seconds));
+            return Duration.ofSeconds(clamped);
+        }
+
+        /** Wait after the given number of consecutive failures: minInterval doubled each time. */
+        public Duration backoff(int failures) {
+            Duration d = minInterval.multipliedBy(1L << Math.min(Math.max(0, failures - 1), 20));
+            return d.compareTo(maxInterval) > 0 ? maxInterval : d;
+        }
+    }
+
+    /**
+     * A researcher's place in the schedule.
+     * @param lastFetched Null if never fetched.
+     * @param velocity    Citations gained per day over the policy's window.
+     */
+    public record Entry(String researcherId, Instant lastFetched, double velocity, int failures, Instant dueAt) {}
+
+    public RefreshSchedule(ConnectionManager db, Policy policy) {
+        this.db = db;
+        this.policy = policy;
+    }
+
+    public Policy policy() { return policy; }
+
+    /** Creates refresh_state, seeded with every researcher already stored (last fetch = newest row). */
+    public static void createSchema(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS refresh_state (
+              researcher_id   TEXT    PRIMARY KEY,
+              last_fetched_at INTEGER,
+              last_attempt_at INTEGER,
+              failures        INTEGER NOT NULL DEFAULT 0,
+              last_error      TEXT
+            ) WITHOUT ROWID
+        """);
+        st.executeUpdate("""
+            INSERT OR IGNORE INTO refresh_state (researcher_id, last_fetched_at, last_attempt_at)
+            SELECT researcher_id, CAST(strftime('%s', MAX(created_at)) AS INTEGER), CAST(strftime('%s', MAX(created_at)) AS INTEGER)
+            FROM articles
+            GROUP BY researcher_id
+        """);
+    }
+
+    /**
+     * Cleans ids seeded or tracked before input was normalized: "&hl=..." is cut off, and a row
+     * whose clean id already exists is merged into it, keeping the newer fetch time. Renamed rows
+     * start without failures, since those came from the invalid id. Rows that are not author_ids
+     * even without the suffix are removed: the scheduler would only spend quota failing on them.
+     */
+    public static void normalizeIds(Statement st) throws SQLException {
+        List<String> ids = new ArrayList<>(); // small table: read whole
+        try (ResultSet rs = st.executeQuery("SELECT researcher_id FROM refresh_state")) {
+            while (rs.next()) ids.add(rs.getString(1));
+        }
+        try (PreparedStatement merge = st.getConnection().prepareStatement("""
+                 INSERT INTO refresh_state (researcher_id, last_fetched_at, last_attempt_at, failures, last_error)
+                 SELECT ?1, last_fetched_at, last_fetched_at, 0, NULL FROM refresh_state WHERE researcher_id = ?2
+                 ON CONFLICT(researcher_id) DO UPDATE SET
+                   last_fetched_at = CASE WHEN excluded.last_fetched_at > COALESCE(last_fetched_at, -1)
+                                          THEN excluded.last_fetched_at ELSE last_fetched_at END
+             """);
+             PreparedStatement delete = st.getConnection().prepareStatement("DELETE FROM refresh_state WHERE researcher_id = ?")) {
+            for (String id : ids) {
+                int amp = id.indexOf('&');
+                String clean = amp < 0 ? id : id.substring(0, amp);
+                boolean valid = AuthorIdScanner.looksLikeId(clean);
+                if (valid && amp < 0) continue;
+                if (valid) {
+                    merge.setString(1, clean);
+                    merge.setString(2, id);
+                    merge.executeUpdate();
+                }
+                delete.setString(1, id);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    /** Stamps a successful fetch. Must run inside {@link ConnectionManager#write}. */
+    public static void recordFetch(ConnectionManager.Session s, String researcherId) throws SQLException {
+        PreparedStatement ps = s.prepare("""
+            INSERT INTO refresh_state (researcher_id, last_fetched_at, last_attempt_at, failures, last_error)
+            VALUES (?, CAST(strftime('%s', 'now') AS INTEGER), CAST(strftime('%s', 'now') AS INTEGER), 0, NULL)
+            ON CONFLICT(researcher_id) DO UPDATE SET
+              last_fetched_at = excluded.last_fetched_at,
+              last_attempt_at = excluded.last_attempt_at,
+              failures = 0,
+              last_error = NULL
+        """);
+        ps.setString(1, researcherId);
+        ps.executeUpdate();
+    }
+
+    /** Adds researchers to the schedule; ones already tracked are left as they are. */
+    public int track(Collection<String> researcherIds) throws SQLException {
+        return db.write(s -> {
+            PreparedStatement ps = s.prepare("INSERT OR IGNORE INTO refresh_state (researcher_id) VALUES (?)");
+            int added = 0;
+            for (String id : researcherIds) {
+                ps.setString(1, id);
+                added += ps.executeUpdate();
+            }
+            return added;
+        });
+    }
+
+    /** Records a failed attempt; the researcher backs off before being tried again. */
+    public void recordFailure(String researcherId, Instant at, String error) throws SQLException {
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("""
+                INSERT INTO refresh_state (researcher_id, last_attempt_at, failures, last_error) VALUES (?, ?, 1, ?)
+                ON CONFLICT(researcher_id) DO UPDATE SET
+                  last_attempt_at = excluded.last_attempt_at,
+                  failures = failures + 1,
+                  last_error = excluded.last_error
+            """);
+            ps.setString(1, researcherId);
+            ps.setLong(2, at.getEpochSecond());
+            ps.setString(3, error);
+            return ps.executeUpdate();
+        });
+    }
+
+    /** Every tracked researcher, the most overdue at the head. */
+    public PriorityQueue<Entry> load(Instant now) throws SQLException {
+        Map<String, Double> velocities = velocities(now);
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(Entry::dueAt).thenComparing(Entry::researcherId));
+        db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery(TRACKED_SQL)) {
+                while (rs.next()) {
+                    String id = rs.getString(1);
+                    queue.add(entry(id, epoch(rs, 2), epoch(rs, 3), rs.getInt(4), velocities.getOrDefault(id, 0.0)));
+                }
+            }
+            return null;
+        });
+        return queue;
+    }
+
+    /** A researcher's current entry, e.g. to put it back in the queue after a fetch. */
+    public Entry entry(String researcherId, Instant now) throws SQLException {
+        Double velocity = velocities(now).getOrDefault(researcherId, 0.0);
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(TRACKED_SQL + " WHERE researcher_id = ?");
+            ps.setString(1, researcherId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return entry(researcherId, null, null, 0, velocity);
+                return entry(researcherId, epoch(rs, 2), epoch(rs, 3), rs.getInt(4), velocity);
+            }
+        });
+    }
+
+    private Entry entry(String id, Instant lastFetched, Instant lastAttempt, int failures, double velocity) {
+        Instant due = lastFetched == null ? Instant.EPOCH : lastFetched.plus(policy.interval(velocity));
+        if (failures > 0 && lastAttempt != null) {
+            Instant retry = lastAttempt.plus(policy.backoff(failures));
+            if (retry.isAfter(due)) due = retry;
+        }
+        return new Entry(id, lastFetched, velocity, failures, due);
+    }
+
+    // Citations per day over the window, by researcher (absent = no growth)
+    private Map<String, Double> velocities(Instant now) throws SQLException {
+        long today = now.getEpochSecond() / 86_400;
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(VELOCITY_SQL);
+            ps.setLong(1, today - policy.windowDays());
+            Map<String, Double> result = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.put(rs.getString(1), rs.getLong(2) / (double) policy.windowDays());
+            }
+            return result;
+        });
+    }
+
+    private static Instant epoch(ResultSet rs, int column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : Instant.ofEpochSecond(v);
+    }
+}
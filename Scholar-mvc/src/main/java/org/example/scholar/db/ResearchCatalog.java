@@ -0,0 +1,271 @@
+package org.example.scholar.db;
+
+import org.example.scholar.service.ScholarUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResearchCatalog is the normalized view of the data: researchers, their articles and the
+ * people who co-authored them.
+ *
+ * Tables:
+ *  - researcher(id, name): one row per Google Scholar profile, so the name is stored once.
+ *  - article(id, researcher_id, title, publication_date, link, cited_by): the columns used to
+ *    filter and sort; id is the articles.id of the same row, and the text-heavy columns
+ *    (abstract, keywords) stay in articles, where the full-text index reads them.
+ *  - author(id, name): every distinct co-author name (case-insensitive).
+ *  - article_author(article_id, position, author_id): the authors string split into rows.
+ * Covering indexes serve the common paths without a sort or a table lookup: a researcher's
+ * articles by citations, articles by co-author and a researcher's co-authors.
+ * The tables are written by ScholarDb in the same transaction as articles, and a trigger removes
+ * the normalized rows when an articles row is deleted.
+ */
+public class ResearchCatalog {
+    private static final String BY_RESEARCHER_SQL = """
+        SELECT id, researcher_id, title, publication_date, link, cited_by
+        FROM article
+        WHERE researcher_id = ?
+        ORDER BY cited_by DESC
+        LIMIT ?
+    """;
+    private static final String BY_COAUTHOR_SQL = """
+        SELECT a.id, a.researcher_id, a.title, a.publication_date, a.link, a.cited_by
+        FROM author au
+        JOIN article_author aa ON aa.author_id = au.id
+        JOIN article a ON a.id = aa.article_id
+        WHERE au.name = ?
+        ORDER BY a.cited_by DESC
+        LIMIT ?
+    """;
+    private static final String COAUTHORS_SQL = """
+        SELECT au.name, COUNT(*) AS papers
+        FROM article a
+        JOIN article_author aa ON aa.article_id = a.id
+        JOIN author au ON au.id = aa.author_id
+        WHERE a.researcher_id = ?
+        GROUP BY au.id
+        ORDER BY papers DESC, au.name
+        LIMIT ?
+    """;
+
+    /** An article as stored in the normalized tables. */
+    public record ArticleRef(long id, String researcherId, String title, String publicationDate,
+                             String link, Integer citedBy) {}
+
+    /** A co-author and the number of the researcher's articles they appear on. */
+    public record Coauthor(String name, int papers) {}
+
+    private final ConnectionManager db;
+
+    public ResearchCatalog(ConnectionManager db) {
+        this.db = db;
+    }
+
+    public static void createSchema(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS researcher (
+              id   TEXT PRIMARY KEY,
+              name TEXT
+            ) WITHOUT ROWID
+        """);
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS article (
+              id               INTEGER PRIMARY KEY,
+              researcher_id    TEXT    NOT NULL,
+              title            TEXT    NOT NULL,
+              publication_date TEXT,
+              link             TEXT,
+              cited_by         INTEGER
+            )
+        """);
+        // A researcher's articles, most cited first, answered from the index alone
+        st.executeUpdate("""
+            CREATE INDEX IF NOT EXISTS idx_article_researcher_cited
+            ON article(researcher_id, cited_by DESC, title, publication_date, link)
+        """);
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS author (
+              id   INTEGER PRIMARY KEY,
+              name TEXT NOT NULL UNIQUE COLLATE NOCASE
+            )
+        """);
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS article_author (
+              article_id INTEGER NOT NULL,
+              position   INTEGER NOT NULL,
+              author_id  INTEGER NOT NULL,
+              PRIMARY KEY (article_id, position)
+            ) WITHOUT ROWID
+        """);
+        // Articles of one co-author
+        st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_article_author_author ON article_author(author_id, article_id)");
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_catalog_delete AFTER DELETE ON articles
+            BEGIN
+              DELETE FROM article_author WHERE article_id = old.id;
+              DELETE FROM article WHERE id = old.id;
+            END
+        """);
+    }
+
+    /** Inserts or renames a researcher. Must run inside {@link ConnectionManager#write}. */
+    public static void writeResearcher(ConnectionManager.Session s, String id, String name) throws SQLException {
+        PreparedStatement ps = s.prepare("""
+            INSERT INTO researcher (id, name) VALUES (?, ?)
+            ON CONFLICT(id) DO UPDATE SET name = excluded.name WHERE name IS NOT excluded.name
+        """);
+        ps.setString(1, id);
+        ps.setString(2, name);
+        ps.executeUpdate();
+    }
+
+    /**
+     * Inserts or replaces the normalized copy of an articles row and its author list.
+     * Must run inside {@link ConnectionManager#write}.
+     * @param authorIds Cache of author name to id for the current transaction (may be shared
+     *                  across calls of one transaction, never across transactions).
+     */
+    public static void writeArticle(ConnectionManager.Session s, long id, String researcherId, String title,
+                                    String publicationDate, String link, Integer citedBy, String authors,
+                                    Map<String, Long> authorIds) throws SQLException {
+        PreparedStatement article = s.prepare("""
+            INSERT INTO article (id, researcher_id, title, publication_date, link, cited_by)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET
+              researcher_id = excluded.researcher_id, title = excluded.title,
+              publication_date = excluded.publication_date, link = excluded.link, cited_by = excluded.cited_by
+        """);
+        article.setLong(1, id);
+        article.setString(2, researcherId);
+        article.setString(3, title);
+        article.setString(4, publicationDate);
+        article.setString(5, link);
+        if (citedBy == null) article.setNull(6, Types.INTEGER); else article.setInt(6, citedBy);
+        article.executeUpdate();
+
+        PreparedStatement clear = s.prepare("DELETE FROM article_author WHERE article_id = ?");
+        clear.setLong(1, id);
+        clear.executeUpdate();
+        List<String> names = ScholarUtils.splitAuthors(authors);
+        if (names.isEmpty()) return;
+        PreparedStatement byline = s.prepare(
+                "INSERT INTO article_author (article_id, position, author_id) VALUES (?, ?, ?)");
+        for (int i = 0; i < names.size(); i++) {
+            byline.setLong(1, id);
+            byline.setInt(2, i);
+            byline.setLong(3, authorId(s, names.get(i), authorIds));
+            byline.addBatch();
+        }
+        byline.executeBatch();
+    }
+
+    private static long authorId(ConnectionManager.Session s, String name, Map<String, Long> cache) throws SQLException {
+        Long cached = cache.get(name);
+        if (cached != null) return cached;
+        PreparedStatement insert = s.prepare("INSERT OR IGNORE INTO author (name) VALUES (?)");
+        insert.setString(1, name);
+        insert.executeUpdate();
+        PreparedStatement select = s.prepare("SELECT id FROM author WHERE name = ?");
+        select.setString(1, name);
+        long id;
+        try (ResultSet rs = select.executeQuery()) {
+            rs.next();
+            id = rs.getLong(1);
+        }
+        cache.put(name, id);
+        return id;
+    }
+
+    /** A researcher's articles, most cited first. */
+    public List<ArticleRef> articlesByResearcher(String researcherId, int limit) throws SQLException {
+        return query(BY_RESEARCHER_SQL, researcherId, limit);
+    }
+
+    /** Articles that list the given co-author (name compared case-insensitively), most cited first. */
+    public List<ArticleRef> articlesByCoauthor(String name, int limit) throws SQLException {
+        return query(BY_COAUTHOR_SQL, name.strip(), limit);
+    }
+
+    /** People who appear most often on a researcher's articles (the researcher included). */
+    public List<Coauthor> coauthors(String researcherId, int limit) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(COAUTHORS_SQL);
+            ps.setString(1, researcherId);
+            ps.setInt(2, limit);
+            List<Coauthor> result = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.add(new Coauthor(rs.getString(1), rs.getInt(2)));
+            }
+            return result;
+        });
+    }
+
+    /** Stored name of a researcher, or null if unknown. */
+    public String researcherName(String researcherId) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare("SELECT name FROM researcher WHERE id = ?");
+            ps.setString(1, researcherId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        });
+    }
+
+    private List<ArticleRef> query(String sql, String arg, int limit) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps = s.prepare(sql);
+            ps.setString(1, arg);
+            ps.setInt(2, limit);
+            List<ArticleRef> result = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int cited = rs.getInt(6);
+                    result.add(new ArticleRef(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getString(5), rs.wasNull() ? null : cited));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Backfills the normalized tables from the articles rows of one rowid range
+     * (a {@link SchemaMigrator.Rewrite}).
+     */
+    static void backfill(ConnectionManager.Session s, long from, long to) throws SQLException {
+        PreparedStatement ps = s.prepare("""
+            SELECT id, researcher_id, researcher_name, title, publication_date, link, cited_by, authors
+            FROM articles WHERE id > ? AND id <= ?
+        """);
+        ps.setLong(1, from);
+        ps.setLong(2, to);
+        List<BackfillRow> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int cited = rs.getInt(7);
+                rows.add(new BackfillRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.wasNull() ? null : cited, rs.getString(8)));
+            }
+        }
+        Map<String, Long> authorIds = new HashMap<>();
+        String lastResearcher = null;
+        for (BackfillRow r : rows) {
+            if (!r.researcherId().equals(lastResearcher)) {
+                writeResearcher(s, r.researcherId(), r.researcherName());
+                lastResearcher = r.researcherId();
+            }
+            writeArticle(s, r.id(), r.researcherId(), r.title(), r.date(), r.link(), r.citedBy(), r.authors(), authorIds);
+        }
+    }
+
+    private record BackfillRow(long id, String researcherId, String researcherName, String title, String date,
+                               String link, Integer citedBy, String authors) {}
+}
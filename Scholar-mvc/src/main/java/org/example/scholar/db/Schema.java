@@ -0,0 +1,142 @@
+package org.example.scholar.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema lists the migrations that build scholar.db, oldest first.
+ *
+ * New changes are appended with the next version number; applied steps are never edited,
+ * since databases in the field have already recorded them in schema_version.
+ */
+public final class Schema {
+    private Schema() {}
+
+    /** The step that creates the normalized researcher, article, author and article_author tables. */
+    public static final int CATALOG_VERSION = 7;
+    /** The step that creates article_canonical, which duplicate-aware metrics read. */
+    public static final int CANONICAL_VERSION = 9;
+
+    public static final List<SchemaMigrator.Step> STEPS = List.of(
+            SchemaMigrator.Step.schema(1, "articles table", Schema::createArticles),
+            SchemaMigrator.Step.schema(2, "articles.content_hash for incremental sync", Schema::addContentHash),
+            SchemaMigrator.Step.schema(3, "citation_history and its triggers", CitationHistory::createSchema),
+            SchemaMigrator.Step.schema(4, "articles_fts full-text index", SearchIndex::createSchema),
+            SchemaMigrator.Step.schema(5, "keyword_stats and keyword_corpus", KeywordIndex::createSchema),
+            SchemaMigrator.Step.rewrite(6, "strip '&...' suffixes from researcher_id and merge duplicates",
+                    "articles", Schema::normalizeResearcherIds),
+            SchemaMigrator.Step.schema(CATALOG_VERSION, "researcher, article, author and article_author tables",
+                    ResearchCatalog::createSchema),
+            SchemaMigrator.Step.rewrite(8, "fill the normalized tables from articles",
+                    "articles", ResearchCatalog::backfill),
+            SchemaMigrator.Step.schema(CANONICAL_VERSION, "article_canonical duplicate mapping and canonical_articles view",
+                    DuplicateIndex::createSchema),
+            SchemaMigrator.Step.schema(10, "refresh_state for the refresh scheduler", RefreshSchedule::createSchema),
+            SchemaMigrator.Step.schema(11, "quota_ledger of SerpApi requests per month", QuotaLedger::createSchema),
+            SchemaMigrator.Step.schema(12, "strip '&...' suffixes from refresh_state and drop ids that are not author_ids",
+                    RefreshSchedule::normalizeIds));
+
+    /** A migrator over {@link #STEPS} with the default batch size. */
+    public static SchemaMigrator migrator(ConnectionManager db) {
+        return new SchemaMigrator(db, STEPS, SchemaMigrator.DEFAULT_BATCH_SIZE);
+    }
+
+    private static void createArticles(Statement st) throws SQLException {
+        st.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS articles (
+              id               INTEGER PRIMARY KEY AUTOINCREMENT,
+              researcher_id    TEXT    NOT NULL,
+              researcher_name  TEXT,
+              title            TEXT    NOT NULL,
+              authors          TEXT,
+              publication_date TEXT,
+              abstract         TEXT,
+              link             TEXT,
+              keywords         TEXT,
+              cited_by         INTEGER,
+              created_at       TEXT DEFAULT (datetime('now')),
+              content_hash     INTEGER,
+              UNIQUE(researcher_id, title)
+            )
+        """);
+    }
+
+    // Databases created before incremental sync do not have the column
+    private static void addContentHash(Statement st) throws SQLException {
+        if (!hasColumn(st.getConnection(), "articles", "content_hash")) {
+            st.executeUpdate("ALTER TABLE articles ADD COLUMN content_hash INTEGER");
+        }
+    }
+
+    /**
+     * Replaces the old full-copy Migrate: ids pasted with "&hl=..." are cut at the first '&'.
+     * When the clean (researcher_id, title) already exists the two rows are merged, keeping the
+     * higher cited_by and the older created_at, and the duplicate is deleted.
+     */
+    private static void normalizeResearcherIds(ConnectionManager.Session s, long from, long to) throws SQLException {
+        PreparedStatement select = s.prepare("""
+            SELECT id, researcher_id, title, cited_by, created_at FROM articles
+            WHERE id > ? AND id <= ? AND instr(researcher_id, '&') > 0
+        """);
+        select.setLong(1, from);
+        select.setLong(2, to);
+        List<DirtyRow> dirty = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                long cited = rs.getLong(4);
+                dirty.add(new DirtyRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.wasNull() ? null : cited, rs.getString(5)));
+            }
+        }
+        if (dirty.isEmpty()) return;
+
+        PreparedStatement find = s.prepare("SELECT id FROM articles WHERE researcher_id = ? AND title = ?");
+        PreparedStatement rename = s.prepare("UPDATE articles SET researcher_id = ? WHERE id = ?");
+        PreparedStatement merge = s.prepare("""
+            UPDATE articles SET
+              cited_by   = CASE WHEN ?1 > COALESCE(cited_by, -1) THEN ?1 ELSE cited_by END,
+              created_at = COALESCE(min(created_at, ?2), created_at, ?2)
+            WHERE id = ?3
+        """);
+        PreparedStatement delete = s.prepare("DELETE FROM articles WHERE id = ?");
+        for (DirtyRow row : dirty) {
+            String clean = row.researcherId().substring(0, row.researcherId().indexOf('&'));
+            find.setString(1, clean);
+            find.setString(2, row.title());
+            Long survivor;
+            try (ResultSet rs = find.executeQuery()) {
+                survivor = rs.next() ? rs.getLong(1) : null;
+            }
+            if (survivor == null) {
+                rename.setString(1, clean);
+                rename.setLong(2, row.id());
+                rename.executeUpdate();
+            } else {
+                if (row.citedBy() == null) merge.setNull(1, Types.INTEGER); else merge.setLong(1, row.citedBy());
+                merge.setString(2, row.createdAt());
+                merge.setLong(3, survivor);
+                merge.executeUpdate();
+                delete.setLong(1, row.id());
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    private record DirtyRow(long id, String researcherId, String title, Long citedBy, String createdAt) {}
+
+    static boolean hasColumn(Connection c, String table, String column) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT 1 FROM pragma_table_info(?) WHERE name = ?")) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
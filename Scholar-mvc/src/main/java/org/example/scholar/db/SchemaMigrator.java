@@ -0,0 +1,221 @@
+package org.example.scholar.db;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SchemaMigrator applies an ordered list of versioned steps to the database and records each
+ * one in a schema_version table, so every step runs once per database.
+ *
+ * Two kinds of steps:
+ *  - Schema steps (DDL) run in one short transaction together with their schema_version row.
+ *    They must be idempotent (IF NOT EXISTS, column checks) because databases created before
+ *    schema_version already contain some of the objects.
+ *  - Rewrite steps change existing rows. They walk the table by rowid in ranges of a bounded
+ *    size and commit each range separately, saving the last rowid done in schema_version in
+ *    the same transaction. The write lock is released between ranges, so imports keep running,
+ *    and an interrupted migration resumes where it stopped.
+ * Rows inserted after a rewrite starts are not visited: rewrites fix data that current code
+ * no longer produces.
+ */
+public class SchemaMigrator {
+    /** Default number of rowids per rewrite transaction (system property migrate.batchSize). */
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("migrate.batchSize", 5000);
+
+    /** Applies a schema change. */
+    @FunctionalInterface
+    public interface Ddl {
+        void apply(Statement st) throws SQLException;
+    }
+
+    /** Rewrites the rows of one rowid range, {@code from} exclusive and {@code to} inclusive. */
+    @FunctionalInterface
+    public interface Rewrite {
+        void apply(ConnectionManager.Session session, long from, long to) throws SQLException;
+    }
+
+    /**
+     * One migration. Exactly one of ddl and rewrite is set; table is the table a rewrite walks.
+     * Use {@link #schema} and {@link #rewrite} to build them.
+     */
+    public record Step(int version, String description, Ddl ddl, String table, Rewrite rewrite) {
+        public static Step schema(int version, String description, Ddl ddl) {
+            return new Step(version, description, ddl, null, null);
+        }
+
+        public static Step rewrite(int version, String description, String table, Rewrite rewrite) {
+            return new Step(version, description, null, table, rewrite);
+        }
+
+        public boolean isRewrite() { return rewrite != null; }
+    }
+
+    /**
+     * State of a step in this database.
+     * @param cursor    Last rowid rewritten (0 for schema steps and rewrites not started).
+     * @param appliedAt When the step finished, or null if it is pending or in progress.
+     */
+    public record Status(Step step, long cursor, String appliedAt) {
+        public boolean applied() { return appliedAt != null; }
+    }
+
+    /** Receives progress after every committed rewrite range. */
+    @FunctionalInterface
+    public interface Listener {
+        void progress(Step step, long cursor, long last);
+    }
+
+    private final ConnectionManager db;
+    private final List<Step> steps;
+    private final int batchSize;
+
+    public SchemaMigrator(ConnectionManager db, List<Step> steps, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+        for (int i = 1; i < steps.size(); i++) {
+            if (steps.get(i).version() <= steps.get(i - 1).version()) {
+                throw new IllegalArgumentException("Steps must be in increasing version order: " + steps.get(i).version());
+            }
+        }
+        this.db = db;
+        this.steps = List.copyOf(steps);
+        this.batchSize = batchSize;
+    }
+
+    /** Applies every pending step in version order, resuming rewrites left half done. */
+    public int migrate(Listener listener) throws SQLException {
+        createTable();
+        int applied = 0;
+        for (Step step : steps) {
+            if (step.isRewrite() ? runRewrite(step, listener) : applySchemaStep(step)) applied++;
+        }
+        return applied;
+    }
+
+    /** State of every known step, in version order. Read-only: a database without schema_version has all pending. */
+    public List<Status> status() throws SQLException {
+        Map<Integer, Status> stored = db.read(s -> {
+            Map<Integer, Status> map = new HashMap<>();
+            if (!hasVersionTable(s)) return map;
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT version, cursor, applied_at FROM schema_version")) {
+                while (rs.next()) map.put(rs.getInt(1), new Status(null, rs.getLong(2), rs.getString(3)));
+            }
+            return map;
+        });
+        List<Status> result = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            Status st = stored.get(step.version());
+            result.add(new Status(step, st == null ? 0 : st.cursor(), st == null ? null : st.appliedAt()));
+        }
+        return result;
+    }
+
+    private void createTable() throws SQLException {
+        db.write(s -> {
+            try (Statement st = s.connection().createStatement()) {
+                st.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                      version     INTEGER PRIMARY KEY,
+                      description TEXT    NOT NULL,
+                      cursor      INTEGER NOT NULL DEFAULT 0,
+                      applied_at  TEXT
+                    )
+                """);
+            }
+            return null;
+        });
+    }
+
+    private static boolean hasVersionTable(ConnectionManager.Session s) throws SQLException {
+        PreparedStatement ps = s.prepare("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'");
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private boolean applySchemaStep(Step step) throws SQLException {
+        return db.write(s -> {
+            // Checked inside the transaction: another process may have applied it meanwhile
+            if (isApplied(s, step)) return false;
+            try (Statement st = s.connection().createStatement()) {
+                step.ddl().apply(st);
+            }
+            PreparedStatement ps = s.prepare("""
+                INSERT INTO schema_version (version, description, cursor, applied_at)
+                VALUES (?, ?, 0, datetime('now'))
+                ON CONFLICT(version) DO UPDATE SET applied_at = excluded.applied_at
+            """);
+            ps.setInt(1, step.version());
+            ps.setString(2, step.description());
+            ps.executeUpdate();
+            return true;
+        });
+    }
+
+    private boolean runRewrite(Step step, Listener listener) throws SQLException {
+        // Registers the step (cursor 0) or finds where a previous run stopped
+        Long start = db.write(s -> {
+            if (isApplied(s, step)) return null;
+            PreparedStatement ps = s.prepare(
+                    "INSERT OR IGNORE INTO schema_version (version, description, cursor) VALUES (?, ?, 0)");
+            ps.setInt(1, step.version());
+            ps.setString(2, step.description());
+            ps.executeUpdate();
+            return cursor(s, step);
+        });
+        if (start == null) return false;
+
+        long last = db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(rowid), 0) FROM " + step.table())) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+
+        long cursor = start;
+        while (cursor < last) {
+            long from = cursor, to = Math.min(last, cursor + batchSize);
+            db.write(s -> {
+                step.rewrite().apply(s, from, to);
+                PreparedStatement ps = s.prepare("UPDATE schema_version SET cursor = ? WHERE version = ?");
+                ps.setLong(1, to);
+                ps.setInt(2, step.version());
+                ps.executeUpdate();
+                return null;
+            });
+            cursor = to;
+            if (listener != null) listener.progress(step, cursor, last);
+        }
+
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("UPDATE schema_version SET applied_at = datetime('now') WHERE version = ?");
+            ps.setInt(1, step.version());
+            ps.executeUpdate();
+            return null;
+        });
+        return true;
+    }
+
+    private static boolean isApplied(ConnectionManager.Session s, Step step) throws SQLException {
+        PreparedStatement ps = s.prepare("SELECT 1 FROM schema_version WHERE version = ? AND applied_at IS NOT NULL");
+        ps.setInt(1, step.version());
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private static long cursor(ConnectionManager.Session s, Step step) throws SQLException {
+        PreparedStatement ps = s.prepare("SELECT cursor FROM schema_version WHERE version = ?");
+        ps.setInt(1, step.version());
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.scholar.db;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SearchIndex is a full-text index over the title, abstract and keywords of every article,
+ * built on SQLite FTS5.
+ *
+ * The index is an external-content FTS5 table (it stores only the inverted index and reads
+ * the text from articles), kept in sync by triggers on insert, update and delete, so every
+ * upsert is indexed in the same transaction. Results are ranked with bm25, weighting title
+ * matches above keywords and keywords above the abstract.
+ */
+public class SearchIndex {
+    private static final String SEARCH_SQL = """
+        SELECT a.id, a.researcher_id, a.title, a.cited_by,
+               bm25(articles_fts, 10.0, 2.0, 4.0) AS score
+        FROM articles_fts
+        JOIN articles a ON a.id = articles_fts.rowid
+        WHERE articles_fts MATCH ?
+        ORDER BY score
+        LIMIT ?
+    """;
+    private static final String SEARCH_BY_RESEARCHER_SQL = """
+        SELECT a.id, a.researcher_id, a.title, a.cited_by,
+               bm25(articles_fts, 10.0, 2.0, 4.0) AS score
+        FROM articles_fts
+        JOIN articles a ON a.id = articles_fts.rowid
+        WHERE articles_fts MATCH ? AND a.researcher_id = ?
+        ORDER BY score
+        LIMIT ?
+    """;
+
+    private final ConnectionManager db;
+
+    public SearchIndex(ConnectionManager db) {
+        this.db = db;
+    }
+
+    /** Creates the FTS5 table and its sync triggers if missing, indexing existing rows once. */
+    public static void createSchema(Statement st) throws SQLException {
+        boolean existed;
+        try (ResultSet rs = st.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type='table' AND name='articles_fts'")) {
+            existed = rs.next();
+        }
+        st.executeUpdate("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS articles_fts USING fts5(
+              title, abstract, keywords,
+              content='articles', content_rowid='id',
+              tokenize='unicode61 remove_diacritics 2',
+              prefix='2 3'
+            )
+        """);
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_fts_insert AFTER INSERT ON articles
+            BEGIN
+              INSERT INTO articles_fts (rowid, title, abstract, keywords)
+              VALUES (new.id, new.title, new.abstract, new.keywords);
+            END
+        """);
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_fts_delete AFTER DELETE ON articles
+            BEGIN
+              INSERT INTO articles_fts (articles_fts, rowid, title, abstract, keywords)
+              VALUES ('delete', old.id, old.title, old.abstract, old.keywords);
+            END
+        """);
+        st.executeUpdate("""
+            CREATE TRIGGER IF NOT EXISTS trg_articles_fts_update AFTER UPDATE OF title, abstract, keywords ON articles
+            BEGIN
+              INSERT INTO articles_fts (articles_fts, rowid, title, abstract, keywords)
+              VALUES ('delete', old.id, old.title, old.abstract, old.keywords);
+              INSERT INTO articles_fts (rowid, title, abstract, keywords)
+              VALUES (new.id, new.title, new.abstract, new.keywords);
+            END
+        """);
+        if (!existed) st.executeUpdate("INSERT INTO articles_fts (articles_fts) VALUES ('rebuild')");
+    }
+
+    /**
+     * Runs an FTS5 MATCH query, best matches first.
+     * @param match        FTS5 query; build it with {@link #allTerms}, {@link #prefix} or {@link #phrase}
+     *                     when it comes from user input.
+     * @param researcherId Restrict to one researcher, or null for the whole corpus.
+     * @param limit        Maximum number of hits.
+     */
+    public List<Hit> search(String match, String researcherId, int limit) throws SQLException {
+        return db.read(s -> {
+            PreparedStatement ps;
+            if (researcherId == null) {
+                ps = s.prepare(SEARCH_SQL);
+                ps.setString(1, match);
+                ps.setInt(2, limit);
+            } else {
+                ps = s.prepare(SEARCH_BY_RESEARCHER_SQL);
+                ps.setString(1, match);
+                ps.setString(2, researcherId);
+                ps.setInt(3, limit);
+            }
+            List<Hit> hits = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int citedBy = rs.getInt(4);
+                    hits.add(new Hit(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.wasNull() ? null : citedBy, rs.getDouble(5)));
+                }
+            }
+            return hits;
+        });
+    }
+
+    /** Every word must appear (in any column, any order). */
+    public static String allTerms(String text) {
+        return join(words(text));
+    }
+
+    /** Every word must appear; the last one may be a prefix (search-as-you-type). */
+    public static String prefix(String text) {
+        List<String> w = words(text);
+        return w.isEmpty() ? "" : join(w) + "*";
+    }
+
+    /** The words must appear together, in this order. */
+    public static String phrase(String text) {
+        List<String> w = words(text);
+        return w.isEmpty() ? "" : quote(String.join(" ", w));
+    }
+
+    private static List<String> words(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        for (String t : text.trim().split("\\s+")) if (!t.isEmpty()) out.add(t);
+        return out;
+    }
+
+    private static String join(List<String> words) {
+        StringBuilder sb = new StringBuilder();
+        for (String w : words) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(quote(w));
+        }
+        return sb.toString();
+    }
+
+    // FTS5 string literal: double quotes, with embedded quotes doubled
+    private static String quote(String s) {
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    /** A ranked search result; a lower score is a better match (bm25 convention). */
+    public record Hit(long articleId, String researcherId, String title, Integer citedBy, double score) {}
+}
@@ -0,0 +1,178 @@
+package org.example.scholar.graph;
+
+import org.example.scholar.db.ConnectionManager;
+import org.example.scholar.service.ScholarUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CoauthorGraph is the undirected co-authorship graph: one vertex per distinct author name,
+ * one edge per pair of authors who share at least one article, weighted by how many they share.
+ *
+ * Layout (compressed sparse row, primitive arrays only):
+ *  - Names are interned to dense int ids 0..n-1 (case-insensitively, see NameInterner);
+ *    {@link #name(int)} maps back.
+ *  - The neighbours of v are targets[offsets[v] .. offsets[v+1]), sorted by id, and
+ *    weights[i] is the number of joint articles of the edge in targets[i].
+ * Each undirected edge is stored in both directions, so the graph costs 8 bytes per direction
+ * plus 4 per vertex, with no object per edge. The graph is immutable once built.
+ */
+public final class CoauthorGraph {
+    private final NameInterner ids;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    private CoauthorGraph(NameInterner ids, int[] offsets, int[] targets, int[] weights) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds the graph from the authors column of every canonical article, read with one
+     * forward-only scan. Copies of a paper stored under several profiles (see DuplicateIndex)
+     * count once, so they do not inflate edge weights.
+     */
+    public static CoauthorGraph load(ConnectionManager db, ForkJoinPool pool) throws SQLException {
+        Builder builder = new Builder();
+        db.read(s -> {
+            PreparedStatement ps = s.prepare("SELECT authors FROM canonical_articles WHERE authors IS NOT NULL");
+            ps.setFetchSize(1000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) builder.addArticle(ScholarUtils.splitAuthors(rs.getString(1)));
+            }
+            return null;
+        });
+        return builder.build(pool);
+    }
+
+    public int vertices() { return ids.size(); }
+
+    /** Number of undirected edges (pairs of co-authors). */
+    public long edges() { return targets.length / 2; }
+
+    public String name(int v) { return ids.name(v); }
+
+    /** Vertex of a name (compared case-insensitively), or -1 if the name is unknown. */
+    public int id(String name) {
+        return ids.find(name.strip());
+    }
+
+    public int degree(int v) { return offsets[v + 1] - offsets[v]; }
+
+    /** Co-authors of v, sorted by vertex id. */
+    public int[] neighbors(int v) {
+        return Arrays.copyOfRange(targets, offsets[v], offsets[v + 1]);
+    }
+
+    /** Articles v and w share (0 if they are not co-authors). */
+    public int weight(int v, int w) {
+        int i = Arrays.binarySearch(targets, offsets[v], offsets[v + 1], w);
+        return i < 0 ? 0 : weights[i];
+    }
+
+    /**
+     * Collects articles and builds the graph. Not thread-safe: feed it from one thread.
+     */
+    public static final class Builder {
+        /** Articles with more authors keep only the first ones (their pairs grow quadratically). */
+        public static final int MAX_AUTHORS_PER_ARTICLE = 64;
+
+        private final NameInterner ids = new NameInterner();
+        private int[] src = new int[4096];
+        private int[] dst = new int[4096];
+        private long pairs;
+        private final int[] article = new int[MAX_AUTHORS_PER_ARTICLE];
+
+        /** Adds one article's author list; every pair of distinct authors becomes an edge. */
+        public Builder addArticle(List<String> authors) {
+            int n = 0;
+            for (String name : authors) {
+                if (n == MAX_AUTHORS_PER_ARTICLE) break;
+                int v = ids.intern(name);
+                boolean repeated = false;
+                for (int i = 0; i < n; i++) if (article[i] == v) { repeated = true; break; }
+                if (!repeated) article[n++] = v;
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) addPair(article[i], article[j]);
+            }
+            return this;
+        }
+
+        /** Sorts and merges the collected pairs into CSR arrays, in parallel on the pool. */
+        public CoauthorGraph build(ForkJoinPool pool) {
+            int n = ids.size();
+            int m = (int) pairs;
+
+            // Both directions of every pair, bucketed by source vertex
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                offsets[src[i] + 1]++;
+                offsets[dst[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] targets = new int[offsets[n]];
+            for (int i = 0; i < m; i++) {
+                targets[cursor[src[i]]++] = dst[i];
+                targets[cursor[dst[i]]++] = src[i];
+            }
+            src = dst = null; // the pair lists can be collected before the next allocations
+
+            // Sort each neighbour list and collapse repeats into a weight
+            int[] unique = new int[n];
+            int[] weights = new int[targets.length];
+            Parallel.forRange(pool, 0, n, 1024, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    int start = offsets[v], end = offsets[v + 1];
+                    if (start == end) continue;
+                    Arrays.sort(targets, start, end);
+                    int w = start;
+                    weights[w] = 1;
+                    for (int i = start + 1; i < end; i++) {
+                        if (targets[i] == targets[w]) {
+                            weights[w]++;
+                        } else {
+                            w++;
+                            targets[w] = targets[i];
+                            weights[w] = 1;
+                        }
+                    }
+                    unique[v] = w - start + 1;
+                }
+            });
+
+            // Compact the de-duplicated lists into the final arrays
+            int[] finalOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) finalOffsets[v + 1] = finalOffsets[v] + unique[v];
+            int[] finalTargets = new int[finalOffsets[n]];
+            int[] finalWeights = new int[finalOffsets[n]];
+            Parallel.forRange(pool, 0, n, 4096, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    System.arraycopy(targets, offsets[v], finalTargets, finalOffsets[v], unique[v]);
+                    System.arraycopy(weights, offsets[v], finalWeights, finalOffsets[v], unique[v]);
+                }
+            });
+            return new CoauthorGraph(ids, finalOffsets, finalTargets, finalWeights);
+        }
+
+        private void addPair(int a, int b) {
+            if (pairs == src.length) {
+                if (pairs >= Integer.MAX_VALUE / 2) throw new IllegalStateException("Too many co-author pairs");
+                src = Arrays.copyOf(src, src.length * 2);
+                dst = Arrays.copyOf(dst, dst.length * 2);
+            }
+            src[(int) pairs] = a;
+            dst[(int) pairs] = b;
+            pairs++;
+        }
+    }
+}
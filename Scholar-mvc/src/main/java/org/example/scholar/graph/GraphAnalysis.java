@@ -0,0 +1,216 @@
+package org.example.scholar.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * GraphAnalysis runs the whole-graph computations over a {@link CoauthorGraph} on a fork/join pool.
+ *
+ *  - Connected components: lock-free union-find. Edges are processed in parallel; a union links
+ *    the larger root under the smaller one with a compare-and-set and retries if it lost a race.
+ *  - PageRank: weighted by joint articles, computed by pulling from neighbours so each vertex
+ *    is written by one thread only; authors without co-authors spread their rank evenly.
+ *  - Top-k selection by degree or by score with a bounded heap of vertex ids.
+ * All results are primitive arrays indexed by vertex id.
+ */
+public final class GraphAnalysis {
+    private static final int GRAIN = 2048;
+
+    private final CoauthorGraph graph;
+    private final ForkJoinPool pool;
+
+    public GraphAnalysis(CoauthorGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Connected components, numbered by decreasing size (component 0 is the largest).
+     * @param component Component of every vertex.
+     * @param sizes     Number of vertices of every component.
+     */
+    public record Components(int[] component, int[] sizes) {
+        public int count() { return sizes.length; }
+    }
+
+    /** PageRank scores (summing to 1), iterations run and the final L1 change. */
+    public record PageRank(double[] scores, int iterations, double delta) {}
+
+    public Components components() {
+        int n = graph.vertices();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        Parallel.forRange(pool, 0, n, GRAIN * 8, (from, to) -> {
+            for (int v = from; v < to; v++) parent.set(v, v);
+        });
+        Parallel.forRange(pool, 0, n, GRAIN, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++) {
+                    int w = graph.targets[i];
+                    if (w > v) union(parent, v, w); // each undirected edge once
+                }
+            }
+        });
+
+        int[] root = new int[n];
+        Parallel.forRange(pool, 0, n, GRAIN, (from, to) -> {
+            for (int v = from; v < to; v++) root[v] = find(parent, v);
+        });
+
+        // Renumber the roots by decreasing component size
+        int[] size = new int[n];
+        for (int v = 0; v < n; v++) size[root[v]]++;
+        int roots = 0;
+        for (int v = 0; v < n; v++) if (root[v] == v) roots++;
+        long[] order = new long[roots]; // (size, root) packed so one primitive sort orders them
+        int k = 0;
+        for (int v = 0; v < n; v++) if (root[v] == v) order[k++] = ((long) (Integer.MAX_VALUE - size[v]) << 32) | v;
+        Arrays.sort(order);
+        int[] index = new int[n];
+        int[] sizes = new int[roots];
+        for (int c = 0; c < roots; c++) {
+            int r = (int) order[c];
+            index[r] = c;
+            sizes[c] = size[r];
+        }
+        int[] component = new int[n];
+        Parallel.forRange(pool, 0, n, GRAIN * 8, (from, to) -> {
+            for (int v = from; v < to; v++) component[v] = index[root[v]];
+        });
+        return new Components(component, sizes);
+    }
+
+    private static int find(AtomicIntegerArray parent, int v) {
+        while (true) {
+            int p = parent.get(v);
+            if (p == v) return v;
+            int gp = parent.get(p);
+            if (gp != p) parent.compareAndSet(v, p, gp); // path halving; losing the race is harmless
+            v = gp;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int ra = find(parent, a), rb = find(parent, b);
+            if (ra == rb) return;
+            int lo = Math.min(ra, rb), hi = Math.max(ra, rb);
+            if (parent.compareAndSet(hi, hi, lo)) return; // hi was still a root
+        }
+    }
+
+    /**
+     * Weighted PageRank.
+     * @param damping       Probability of following an edge (usually 0.85).
+     * @param maxIterations Upper bound on iterations.
+     * @param tolerance     Stops when the L1 change of an iteration falls below it.
+     */
+    public PageRank pageRank(double damping, int maxIterations, double tolerance) {
+        int n = graph.vertices();
+        if (n == 0) return new PageRank(new double[0], 0, 0);
+        int[] offsets = graph.offsets, targets = graph.targets, weights = graph.weights;
+
+        double[] strength = new double[n]; // sum of edge weights of each vertex
+        Parallel.forRange(pool, 0, n, GRAIN, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                long s = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) s += weights[i];
+                strength[v] = s;
+            }
+        });
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n]; // rank[u] / strength[u], what u gives per unit of weight
+        Arrays.fill(rank, 1.0 / n);
+        int iterations = 0;
+        double delta = Double.MAX_VALUE;
+        while (iterations < maxIterations && delta >= tolerance) {
+            double[] r = rank, nx = next;
+            double dangling = Parallel.sum(pool, 0, n, GRAIN, (from, to) -> {
+                double d = 0;
+                for (int u = from; u < to; u++) {
+                    if (strength[u] == 0) {
+                        share[u] = 0;
+                        d += r[u];
+                    } else {
+                        share[u] = r[u] / strength[u];
+                    }
+                }
+                return d;
+            });
+            double base = (1 - damping) / n + damping * dangling / n;
+            delta = Parallel.sum(pool, 0, n, GRAIN, (from, to) -> {
+                double d = 0;
+                for (int v = from; v < to; v++) {
+                    double in = 0;
+                    for (int i = offsets[v]; i < offsets[v + 1]; i++) in += share[targets[i]] * weights[i];
+                    nx[v] = base + damping * in;
+                    d += Math.abs(nx[v] - r[v]);
+                }
+                return d;
+            });
+            rank = nx;
+            next = r;
+            iterations++;
+        }
+        return new PageRank(rank, iterations, delta);
+    }
+
+    /** The k vertices with the most co-authors, highest first. */
+    public int[] topByDegree(int k) {
+        int n = graph.vertices();
+        double[] degree = new double[n];
+        for (int v = 0; v < n; v++) degree[v] = graph.degree(v);
+        return top(degree, k);
+    }
+
+    /** The k vertices with the highest scores, highest first (ties by lower id). */
+    public static int[] top(double[] scores, int k) {
+        k = Math.min(k, scores.length);
+        int[] heap = new int[k]; // min-heap of vertex ids by score
+        int size = 0;
+        for (int v = 0; v < scores.length; v++) {
+            if (size < k) {
+                heap[size] = v;
+                siftUp(heap, size++, scores);
+            } else if (k > 0 && scores[v] > scores[heap[0]]) {
+                heap[0] = v;
+                siftDown(heap, size, scores);
+            }
+        }
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return result;
+    }
+
+    // Lower score first; on equal scores the higher id is "smaller" so lower ids survive
+    private static boolean less(int a, int b, double[] s) {
+        return s[a] < s[b] || (s[a] == s[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int i, double[] s) {
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!less(heap[i], heap[p], s)) return;
+            int t = heap[i]; heap[i] = heap[p]; heap[p] = t;
+            i = p;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] s) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, m = i;
+            if (l < size && less(heap[l], heap[m], s)) m = l;
+            if (r < size && less(heap[r], heap[m], s)) m = r;
+            if (m == i) return;
+            int t = heap[i]; heap[i] = heap[m]; heap[m] = t;
+            i = m;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.scholar.graph;
+
+import java.util.Arrays;
+
+/**
+ * NameInterner maps author names to dense int ids 0, 1, 2, ... in order of first appearance.
+ *
+ * Names are compared ignoring case (as {@link String#equalsIgnoreCase}) and the first spelling
+ * seen is the one kept. The table is open addressing over an int[] of ids with the folded hash
+ * kept alongside, so a lookup allocates nothing: no lower-cased copy, no boxed Integer.
+ * Not thread-safe.
+ */
+final class NameInterner {
+    private static final int EMPTY = -1;
+
+    private String[] names = new String[1024];
+    private int[] hashes = new int[1024];
+    private int[] slots = new int[2048];
+    private int size;
+
+    NameInterner() {
+        Arrays.fill(slots, EMPTY);
+    }
+
+    int size() { return size; }
+
+    String name(int id) { return names[id]; }
+
+    /** Id of the name, adding it if new. */
+    int intern(String name) {
+        int h = hash(name);
+        int mask = slots.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int id = slots[i];
+            if (id == EMPTY) {
+                id = add(name, h);
+                slots[i] = id;
+                if (size * 2 > slots.length) rehash(); // load factor 0.5
+                return id;
+            }
+            if (hashes[id] == h && names[id].equalsIgnoreCase(name)) return id;
+        }
+    }
+
+    /** Id of the name, or -1 if it was never interned. */
+    int find(String name) {
+        int h = hash(name);
+        int mask = slots.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int id = slots[i];
+            if (id == EMPTY) return -1;
+            if (hashes[id] == h && names[id].equalsIgnoreCase(name)) return id;
+        }
+    }
+
+    private int add(String name, int h) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        names[size] = name;
+        hashes[size] = h;
+        return size++;
+    }
+
+    private void rehash() {
+        int[] bigger = new int[slots.length * 2];
+        Arrays.fill(bigger, EMPTY);
+        int mask = bigger.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = hashes[id] & mask;
+            while (bigger[i] != EMPTY) i = (i + 1) & mask;
+            bigger[i] = id;
+        }
+        slots = bigger;
+    }
+
+    // Hash of the case-folded characters, mixed so that linear probing spreads well
+    private static int hash(String s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
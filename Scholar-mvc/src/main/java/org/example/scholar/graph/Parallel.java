@@ -0,0 +1,78 @@
+package org.example.scholar.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join loops over int ranges: the range is split in halves until a piece is at most
+ * {@code grain} long, and the pieces run on the pool's work-stealing threads.
+ */
+final class Parallel {
+    private Parallel() {}
+
+    @FunctionalInterface
+    interface RangeBody {
+        void run(int from, int to);
+    }
+
+    @FunctionalInterface
+    interface RangeSum {
+        double sum(int from, int to);
+    }
+
+    static void forRange(ForkJoinPool pool, int from, int to, int grain, RangeBody body) {
+        if (from < to) pool.invoke(new ForRange(from, to, Math.max(1, grain), body));
+    }
+
+    /** Sum of body over [from, to), adding the pieces pairwise. */
+    static double sum(ForkJoinPool pool, int from, int to, int grain, RangeSum body) {
+        return from < to ? pool.invoke(new SumRange(from, to, Math.max(1, grain), body)) : 0;
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private static final class ForRange extends RecursiveAction {
+        private final int from, to, grain;
+        private final RangeBody body;
+
+        ForRange(int from, int to, int grain, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForRange(from, mid, grain, body), new ForRange(mid, to, grain, body));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class SumRange extends RecursiveTask<Double> {
+        private final int from, to, grain;
+        private final RangeSum body;
+
+        SumRange(int from, int to, int grain, RangeSum body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= grain) return body.sum(from, to);
+            int mid = (from + to) >>> 1;
+            SumRange left = new SumRange(from, mid, grain, body);
+            left.fork();
+            double right = new SumRange(mid, to, grain, body).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.scholar.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counter is a monotonically increasing total (requests, retries, rows, bytes...). */
+public class Counter implements CounterMXBean {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long n) {
+        value.add(n);
+    }
+
+    @Override
+    public long getCount() {
+        return value.sum();
+    }
+}
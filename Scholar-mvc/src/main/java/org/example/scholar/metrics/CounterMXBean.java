@@ -0,0 +1,6 @@
+package org.example.scholar.metrics;
+
+/** JMX view of a {@link Counter}: org.example.scholar:type=Counter,name=... */
+public interface CounterMXBean {
+    long getCount();
+}
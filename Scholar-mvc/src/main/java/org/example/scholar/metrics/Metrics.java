@@ -0,0 +1,126 @@
+package org.example.scholar.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics is the registry of every {@link Timer} and {@link Counter} in the application.
+ *
+ * Instrumented classes keep the instruments they use in static fields, so the hot path never
+ * looks anything up. Every instrument is published as an MXBean under
+ * org.example.scholar:type=Timer|Counter,name=..., and {@link #startReporter} logs a summary
+ * periodically through slf4j.
+ *
+ * Stage names used across the application:
+ *  - fetch.limiterWait, fetch.http, fetch.parse, keywords.derive
+ *  - db.saveAuthorArticles, db.saveAll (one group-commit transaction)
+ *  - bulk.author (one author, from the first request to the commit of its last page)
+ * Counters: http.requests, http.errors, http.retries, http.bytesRead, cache.hits,
+ * db.rows.inserted, db.rows.updated, db.rows.unchanged, bulk.authors.ok, bulk.authors.failed.
+ */
+public class Metrics {
+    private static final Logger log = LoggerFactory.getLogger(Metrics.class);
+    private static final Metrics SHARED = new Metrics(true);
+
+    private final boolean publishJmx;
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private volatile ScheduledExecutorService reporter;
+
+    /** @param publishJmx Register each instrument with the platform MBean server. */
+    public Metrics(boolean publishJmx) {
+        this.publishJmx = publishJmx;
+    }
+
+    /** Process-wide registry, published over JMX. */
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> register(new Timer(n), "Timer", n));
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> register(new Counter(n), "Counter", n));
+    }
+
+    /**
+     * Logs a summary every period until the JVM exits. Calling it again replaces the schedule;
+     * a period of 0 or less stops it.
+     */
+    public synchronized void startReporter(long period, TimeUnit unit) {
+        if (reporter != null) reporter.shutdownNow();
+        reporter = null;
+        if (period <= 0) return;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "scholar-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::logSummary, period, period, unit);
+    }
+
+    /**
+     * Starts the reporter with the period from the scholar.metrics.logSeconds system property
+     * (default 60, 0 disables it).
+     */
+    public void startReporterFromSystemProperties() {
+        startReporter(Long.getLong("scholar.metrics.logSeconds", 60), TimeUnit.SECONDS);
+    }
+
+    /** Logs every instrument that has recorded something. */
+    public void logSummary() {
+        if (!log.isInfoEnabled()) return;
+        for (String line : summary().split("\n")) {
+            if (!line.isEmpty()) log.info(line);
+        }
+    }
+
+    /** One line per timer and a line with all counters; instruments that never fired are left out. */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Timer t : timers.values()) {
+            LatencyHistogram.Snapshot s = t.snapshot();
+            if (s.count() == 0) continue;
+            sb.append(String.format("%-22s n=%d mean=%s p50=%s p90=%s p99=%s max=%s%n", t.name(), s.count(),
+                    duration(s.mean()), duration(s.percentile(50)), duration(s.percentile(90)),
+                    duration(s.percentile(99)), duration(s.max())));
+        }
+        StringBuilder c = new StringBuilder();
+        for (Counter counter : counters.values()) {
+            long v = counter.getCount();
+            if (v == 0) continue;
+            if (c.length() > 0) c.append(' ');
+            c.append(counter.name()).append('=').append(v);
+        }
+        if (c.length() > 0) sb.append(c).append('\n');
+        return sb.toString();
+    }
+
+    private static String duration(double nanos) {
+        return nanos < 1e6 ? String.format("%.1fus", nanos / 1e3) : String.format("%.2fms", nanos / 1e6);
+    }
+
+    private <T> T register(T mbean, String type, String name) {
+        if (!publishJmx) return mbean;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = new ObjectName("org.example.scholar:type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(on)) server.registerMBean(mbean, on);
+        } catch (JMException | SecurityException ex) {
+            log.warn("Could not publish {} {} over JMX: {}", type, name, ex.toString());
+        }
+        return mbean;
+    }
+}
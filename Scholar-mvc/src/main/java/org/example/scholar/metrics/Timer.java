@@ -0,0 +1,46 @@
+package org.example.scholar.metrics;
+
+/**
+ * Timer measures one stage of the pipeline (HTTP, parsing, keywords, SQLite...).
+ *
+ * Usage: {@code long t = TIMER.start(); ...; TIMER.stop(t);} — two nanoTime calls and
+ * one histogram update, no allocation.
+ */
+public class Timer implements TimerMXBean {
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /** Records the time elapsed since {@link #start()} and returns it in nanoseconds. */
+    public long stop(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        histogram.record(elapsed);
+        return elapsed;
+    }
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public LatencyHistogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    // --- TimerMXBean (milliseconds, as shown in JConsole/VisualVM) ---
+
+    @Override public long getCount() { return histogram.snapshot().count(); }
+    @Override public double getMeanMillis() { return histogram.snapshot().mean() / 1e6; }
+    @Override public double getP50Millis() { return histogram.snapshot().percentile(50) / 1e6; }
+    @Override public double getP90Millis() { return histogram.snapshot().percentile(90) / 1e6; }
+    @Override public double getP99Millis() { return histogram.snapshot().percentile(99) / 1e6; }
+    @Override public double getMaxMillis() { return histogram.snapshot().max() / 1e6; }
+}
@@ -0,0 +1,11 @@
+package org.example.scholar.metrics;
+
+/** JMX view of a {@link Timer}: org.example.scholar:type=Timer,name=... */
+public interface TimerMXBean {
+    long getCount();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP90Millis();
+    double getP99Millis();
+    double getMaxMillis();
+}
@@ -0,0 +1,241 @@
+package org.example.scholar.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * AuthorIdReader streams author ids out of a text file with one id or profile URL per line.
+ *
+ * How it works:
+ *  - The file is read through a FileChannel into one reused direct buffer; lines are split
+ *    on the raw bytes, so nothing is decoded to Strings until an id is known to be new.
+ *  - Each line goes through {@link AuthorIdScanner#extract(byte[], int, int, byte[])}; blank
+ *    lines, lines starting with '#' and lines without a valid id are skipped.
+ *  - Ids already seen are skipped using an {@link IdSet}: a table of 64-bit hashes next to the
+ *    id bytes packed in one array. Memory grows by a few dozen bytes per distinct id, not by a
+ *    String per line, and a hash match is confirmed against the stored bytes, so a collision
+ *    never drops a distinct id.
+ * The iterator is lazy: the ingest pipeline pulls one id at a time and the file is never
+ * held in memory. It closes the file when it reaches the end; {@link #close} closes it for
+ * callers that stop early.
+ */
+public class AuthorIdReader implements Iterable<String>, AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE = 4096; // longer lines are skipped as invalid
+
+    private final Path file;
+    private final List<Scan> scans = new ArrayList<>();
+
+    private long lines;
+    private long invalid;
+    private long duplicates;
+    private long ids;
+
+    public AuthorIdReader(Path file) {
+        this.file = file;
+    }
+
+    /** Lines read so far (including skipped ones). */
+    public long lines() { return lines; }
+    /** Non-blank, non-comment lines without a valid author_id. */
+    public long invalid() { return invalid; }
+    /** Lines whose id had already been returned. */
+    public long duplicates() { return duplicates; }
+    /** Distinct ids returned. */
+    public long ids() { return ids; }
+
+    @Override
+    public Iterator<String> iterator() {
+        try {
+            Scan scan = new Scan(FileChannel.open(file, StandardOpenOption.READ));
+            scans.add(scan);
+            return scan;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read " + file, ex);
+        }
+    }
+
+    /** Closes the file of every iterator not read to the end; they report no more ids. */
+    @Override
+    public void close() {
+        for (Scan scan : scans) scan.close();
+        scans.clear();
+    }
+
+    /** 64-bit FNV-1a of the id bytes. */
+    static long hash(byte[] id, int len) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < len; i++) {
+            h ^= id[i];
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private final class Scan implements Iterator<String> {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final byte[] line = new byte[MAX_LINE];
+        private final byte[] id = new byte[AuthorIdScanner.MAX_ID_LENGTH];
+        private final IdSet seen = new IdSet(1 << 16);
+        private boolean eof;
+        private boolean firstLine = true;
+        private String next;
+
+        Scan(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip(); // empty, ready to be filled
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !eof) advance();
+            } catch (IOException ex) {
+                close();
+                throw new UncheckedIOException("Cannot read " + file, ex);
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            String s = next;
+            next = null;
+            return s;
+        }
+
+        // Reads one line and, if it holds a new id, leaves it in next
+        private void advance() throws IOException {
+            int len = 0;
+            boolean overflow = false;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int n = channel.read(buffer);
+                    buffer.flip();
+                    if (n < 0) {
+                        eof = true;
+                        close();
+                        if (len == 0 && !overflow) return;
+                        break; // last line without a trailing newline
+                    }
+                }
+                byte b = buffer.get();
+                if (b == '\n') break;
+                if (len < MAX_LINE) line[len++] = b;
+                else overflow = true;
+            }
+            lines++;
+
+            int from = 0;
+            if (firstLine) {
+                firstLine = false;
+                // UTF-8 byte order mark written by some editors
+                if (len >= 3 && line[0] == (byte) 0xEF && line[1] == (byte) 0xBB && line[2] == (byte) 0xBF) from = 3;
+            }
+            int start = from;
+            while (start < len && (line[start] & 0xFF) <= ' ') start++;
+            if (start == len || line[start] == '#') return; // blank line or comment
+
+            int n = overflow ? -1 : AuthorIdScanner.extract(line, from, len, id);
+            if (n < 0) {
+                invalid++;
+                return;
+            }
+            if (!seen.add(id, n, hash(id, n))) {
+                duplicates++;
+                return;
+            }
+            ids++;
+            next = new String(id, 0, n, StandardCharsets.US_ASCII);
+        }
+
+        private void close() {
+            eof = true;
+            next = null;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // read-only channel, nothing to flush
+            }
+        }
+    }
+
+    /**
+     * Distinct ids: open addressing over (hash, offset) pairs, with each id stored once as a
+     * length byte and its bytes in a shared array. Not thread-safe.
+     */
+    static final class IdSet {
+        private long[] hashes;
+        private int[] offsets; // into bytes, plus one; 0 marks an empty slot
+        private byte[] bytes = new byte[1 << 12];
+        private int used;
+        private int size;
+
+        IdSet(int expected) {
+            int n = 16;
+            while (n * 3L / 4 < expected && n < (1 << 30)) n <<= 1;
+            hashes = new long[n];
+            offsets = new int[n];
+        }
+
+        /** Adds the first len bytes of id; returns false if that id was already present. */
+        boolean add(byte[] id, int len, long hash) {
+            if (size >= (hashes.length >> 1) + (hashes.length >> 2)) grow(); // load factor 0.75
+            int mask = hashes.length - 1;
+            int i = slot(hash, mask);
+            for (; offsets[i] != 0; i = (i + 1) & mask) {
+                if (hashes[i] == hash && matches(offsets[i] - 1, id, len)) return false;
+            }
+            if (used + 1 + len > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + 1 + len));
+            bytes[used] = (byte) len;
+            System.arraycopy(id, 0, bytes, used + 1, len);
+            hashes[i] = hash;
+            offsets[i] = used + 1;
+            used += 1 + len;
+            size++;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private boolean matches(int at, byte[] id, int len) {
+            return bytes[at] == len && Arrays.equals(bytes, at + 1, at + 1 + len, id, 0, len);
+        }
+
+        private void grow() {
+            long[] oldHashes = hashes;
+            int[] oldOffsets = offsets;
+            hashes = new long[oldHashes.length << 1];
+            offsets = new int[oldOffsets.length << 1];
+            int mask = hashes.length - 1;
+            for (int j = 0; j < oldHashes.length; j++) {
+                if (oldOffsets[j] == 0) continue;
+                int i = slot(oldHashes[j], mask);
+                while (offsets[i] != 0) i = (i + 1) & mask;
+                hashes[i] = oldHashes[j];
+                offsets[i] = oldOffsets[j];
+            }
+        }
+
+        // Same mix as LongHashSet: FNV-1a has weak low bits
+        private static int slot(long hash, int mask) {
+            long h = hash * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
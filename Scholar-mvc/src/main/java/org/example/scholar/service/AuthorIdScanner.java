@@ -0,0 +1,132 @@
+package org.example.scholar.service;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AuthorIdScanner pulls a Google Scholar author_id out of whatever users paste:
+ * a bare id, an id with leftover parameters ("FyYiDG0AAAAJ&hl=es") or a full profile URL.
+ *
+ * Every method is a single pass over the input with no regular expressions and, for the
+ * byte variant used by file imports, no allocation at all.
+ */
+public final class AuthorIdScanner {
+    public static final int MIN_ID_LENGTH = 8;
+    public static final int MAX_ID_LENGTH = 30;
+
+    // [A-Za-z0-9_-], indexed by ASCII code
+    private static final boolean[] ID_CHAR = new boolean[128];
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) ID_CHAR[c] = true;
+        for (char c = 'a'; c <= 'z'; c++) ID_CHAR[c] = true;
+        for (char c = '0'; c <= '9'; c++) ID_CHAR[c] = true;
+        ID_CHAR['_'] = true;
+        ID_CHAR['-'] = true;
+    }
+
+    private AuthorIdScanner() {}
+
+    public static boolean isIdChar(int c) {
+        return c >= 0 && c < 128 && ID_CHAR[c];
+    }
+
+    /**
+     * Lenient extraction used for command-line input: the value of user= if present,
+     * otherwise everything before the first '&', trimmed. The result is not validated.
+     */
+    public static String extract(String input) {
+        if (input == null) return null;
+        int from = 0, to = input.length();
+        while (from < to && input.charAt(from) <= ' ') from++;
+        while (to > from && input.charAt(to - 1) <= ' ') to--;
+
+        for (int i = from; i < to; i++) {
+            if (input.charAt(i) == 'u' && input.startsWith("user=", i)) return value(input, i + 5, to);
+        }
+        return value(input, from, to);
+    }
+
+    /** The user= query parameter of a profile URL (only after '?' or '&'), or null. */
+    public static String fromUrl(String url) {
+        if (url == null) return null;
+        for (int i = url.indexOf("user="); i >= 0; i = url.indexOf("user=", i + 1)) {
+            if (i > 0 && (url.charAt(i - 1) == '?' || url.charAt(i - 1) == '&')) {
+                int end = url.indexOf('&', i + 5);
+                String v = url.substring(i + 5, end >= 0 ? end : url.length());
+                if (v.isEmpty()) return null;
+                return v.indexOf('%') >= 0 || v.indexOf('+') >= 0
+                        ? URLDecoder.decode(v, StandardCharsets.UTF_8)
+                        : v;
+            }
+        }
+        return null;
+    }
+
+    /** True when the trimmed input is 8 to 30 characters of [A-Za-z0-9_-]. */
+    public static boolean looksLikeId(CharSequence s) {
+        if (s == null) return false;
+        int from = 0, to = s.length();
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        int len = to - from;
+        if (len < MIN_ID_LENGTH || len > MAX_ID_LENGTH) return false;
+        for (int i = from; i < to; i++) if (!isIdChar(s.charAt(i))) return false;
+        return true;
+    }
+
+    /**
+     * Strict extraction over raw bytes (one line of an import file): finds the id the same way
+     * as {@link #extract}, decodes %XX escapes, and copies it into out.
+     * @return length of the id written to out, or -1 if the line holds no valid author_id.
+     */
+    public static int extract(byte[] buf, int from, int to, byte[] out) {
+        while (from < to && (buf[from] & 0xFF) <= ' ') from++;
+        while (to > from && (buf[to - 1] & 0xFF) <= ' ') to--;
+
+        int start = from, end = to;
+        for (int i = from; i < to; i++) {
+            byte c = buf[i];
+            if (c == '&') {
+                if (end == to) end = i;
+            } else if (c == 'u' && i + 5 <= to && buf[i + 1] == 's' && buf[i + 2] == 'e'
+                    && buf[i + 3] == 'r' && buf[i + 4] == '=') {
+                start = i + 5;
+                end = to;
+                for (int j = start; j < to; j++) {
+                    if (buf[j] == '&' || buf[j] == '#') { end = j; break; }
+                }
+                break;
+            }
+        }
+
+        int n = 0;
+        boolean trailing = false;
+        for (int i = start; i < end; i++) {
+            int c = buf[i] & 0xFF;
+            if (c == '%' && i + 2 < end) {
+                int hi = Character.digit(buf[i + 1], 16), lo = Character.digit(buf[i + 2], 16);
+                if (hi < 0 || lo < 0) return -1;
+                c = hi << 4 | lo;
+                i += 2;
+            }
+            if (c <= ' ') {                     // spaces around the id, e.g. "user= X &hl=es"
+                trailing = n > 0;
+                continue;
+            }
+            if (trailing || !isIdChar(c) || n == MAX_ID_LENGTH) return -1;
+            out[n++] = (byte) c;
+        }
+        return n >= MIN_ID_LENGTH ? n : -1;
+    }
+
+    // Text up to the first '&', trimmed
+    private static String value(String s, int from, int to) {
+        int end = to;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '&') { end = i; break; }
+        }
+        while (from < end && s.charAt(from) <= ' ') from++;
+        while (end > from && s.charAt(end - 1) <= ' ') end--;
+        return s.substring(from, end);
+    }
+}
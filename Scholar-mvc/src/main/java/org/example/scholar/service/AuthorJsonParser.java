@@ -0,0 +1,200 @@
+package org.example.scholar.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * AuthorJsonParser reads a google_scholar_author response with Jackson's streaming
+ * {@link JsonParser} instead of building a full JsonNode tree.
+ *
+ * Only the fields the application uses are pulled out (search status, author name and
+ * affiliations, the cited_by table, a few fields per article and the pagination link);
+ * everything else is skipped token by token. Articles are handed to an {@link ArticleSink}
+ * as soon as they are read, so no intermediate list is built.
+ */
+public final class AuthorJsonParser {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private AuthorJsonParser() {}
+
+    /** Receives the fields of one article, in document order. */
+    @FunctionalInterface
+    public interface ArticleSink {
+        void article(String title, String link, String authors, String publication,
+                     String year, Integer citedBy, String snippet);
+    }
+
+    /** Everything in the response except the articles themselves. */
+    public record Summary(
+            String status,
+            String error,
+            String name,
+            String affiliations,
+            Integer citations,
+            Integer hIndex,
+            Integer i10Index,
+            int articleCount,          // articles present in the page, including skipped ones
+            boolean paginationPresent,
+            boolean hasNext
+    ) {
+        public boolean success() { return "Success".equalsIgnoreCase(status); }
+    }
+
+    /** Parses from a stream; the stream is read to the end but not closed. */
+    public static Summary parse(InputStream in, int maxArticles, ArticleSink sink) throws IOException {
+        try (JsonParser p = FACTORY.createParser(in)) {
+            p.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return parse(p, maxArticles, sink);
+        }
+    }
+
+    private static Summary parse(JsonParser p, int maxArticles, ArticleSink sink) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected SerpApi response: not a JSON object");
+        }
+        State s = new State();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "search_metadata" -> readMetadata(p, s);
+                case "error" -> s.error = p.getValueAsString();
+                case "author" -> readAuthor(p, s);
+                case "cited_by" -> readCitedBy(p, s);
+                case "articles" -> readArticles(p, s, maxArticles, sink);
+                case "serpapi_pagination" -> readPagination(p, s);
+                default -> p.skipChildren();
+            }
+        }
+        return new Summary(s.status, s.error, s.name, s.affiliations, s.citations, s.hIndex, s.i10Index,
+                s.articleCount, s.paginationPresent, s.hasNext);
+    }
+
+    private static void readMetadata(JsonParser p, State s) throws IOException {
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return; }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (field.equals("status")) s.status = p.getValueAsString();
+            else p.skipChildren();
+        }
+    }
+
+    private static void readAuthor(JsonParser p, State s) throws IOException {
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return; }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> s.name = p.getValueAsString();
+                case "affiliations" -> s.affiliations = p.getValueAsString();
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    // "cited_by": { "table": [ {"citations": {"all": N}}, {"h_index": {"all": N}}, {"i10_index": {"all": N}} ], ... }
+    private static void readCitedBy(JsonParser p, State s) throws IOException {
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return; }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (!field.equals("table") || p.currentToken() != JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String metric = p.currentName();
+                    p.nextToken();
+                    switch (metric) {
+                        case "citations" -> s.citations = readAll(p);
+                        case "h_index" -> s.hIndex = readAll(p);
+                        case "i10_index" -> s.i10Index = readAll(p);
+                        default -> p.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    private static Integer readAll(JsonParser p) throws IOException {
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return null; }
+        Integer all = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (field.equals("all")) all = p.getValueAsInt(0);
+            else p.skipChildren();
+        }
+        return all;
+    }
+
+    private static void readArticles(JsonParser p, State s, int maxArticles, ArticleSink sink) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) { p.skipChildren(); return; }
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (s.articleCount++ >= maxArticles) {
+                p.skipChildren(); // counted but not materialized
+                continue;
+            }
+            String title = null, link = null, authors = null, publication = null, year = null, snippet = null;
+            Integer citedBy = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "title" -> title = p.getValueAsString();
+                    case "link" -> link = p.getValueAsString();
+                    case "authors" -> authors = p.getValueAsString();
+                    case "publication" -> publication = p.getValueAsString();
+                    case "year" -> year = p.getValueAsString();
+                    case "snippet" -> snippet = p.getValueAsString();
+                    case "cited_by" -> citedBy = readCitedByValue(p);
+                    default -> p.skipChildren();
+                }
+            }
+            sink.article(title, link, authors, publication, year, citedBy, snippet);
+        }
+    }
+
+    // "cited_by": { "value": N, "link": ..., ... }
+    private static Integer readCitedByValue(JsonParser p) throws IOException {
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return null; }
+        Integer value = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if (field.equals("value") && t != JsonToken.VALUE_NULL) value = p.getValueAsInt(0);
+            else p.skipChildren();
+        }
+        return value;
+    }
+
+    private static void readPagination(JsonParser p, State s) throws IOException {
+        s.paginationPresent = true;
+        if (!p.isExpectedStartObjectToken()) { p.skipChildren(); return; }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if (field.equals("next") && t != JsonToken.VALUE_NULL) s.hasNext = true;
+            p.skipChildren();
+        }
+    }
+
+    private static final class State {
+        String status = "";
+        String error;
+        String name;
+        String affiliations;
+        Integer citations;
+        Integer hIndex;
+        Integer i10Index;
+        int articleCount;
+        boolean paginationPresent;
+        boolean hasNext;
+    }
+}
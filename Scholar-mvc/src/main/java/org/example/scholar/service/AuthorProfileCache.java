@@ -0,0 +1,145 @@
+package org.example.scholar.service;
+
+import org.example.scholar.model.AuthorProfile;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuthorProfileCache keeps recently fetched author profiles in memory.
+ *
+ * Behaviour:
+ *  - Entries expire after a fixed time to live; the least recently used entry is evicted
+ *    when the cache is full.
+ *  - Single flight: when several callers miss on the same author_id at once, only the first
+ *    one calls the loader; the others wait for and share its result (or its error).
+ *  - Hit, miss, coalesced and eviction counters help size the cache.
+ */
+public class AuthorProfileCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<String, CompletableFuture<AuthorProfile>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** Loads a profile on a cache miss (usually {@link SerpApiClient#getAuthorProfile(String)}). */
+    @FunctionalInterface
+    public interface Loader {
+        AuthorProfile load(String authorId) throws Exception;
+    }
+
+    /**
+     * @param maxEntries Maximum number of profiles kept.
+     * @param ttlMillis  How long a profile stays valid after it was fetched.
+     */
+    public AuthorProfileCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** Returns the cached profile, or loads it once for all concurrent callers. */
+    public AuthorProfile get(String authorId, Loader loader) throws Exception {
+        AuthorProfile cached = lookup(authorId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<AuthorProfile> mine = new CompletableFuture<>();
+        CompletableFuture<AuthorProfile> leader = inFlight.putIfAbsent(authorId, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return await(leader);
+        }
+
+        try {
+            // Another caller may have finished loading between the lookup and putIfAbsent
+            AuthorProfile profile = lookup(authorId);
+            if (profile != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                profile = loader.load(authorId);
+                store(authorId, profile);
+            }
+            mine.complete(profile);
+            return profile;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex); // waiting callers get the same error, even for an Error
+            throw ex;
+        } finally {
+            inFlight.remove(authorId, mine);
+        }
+    }
+
+    /** Drops one author, e.g. after a forced refresh. */
+    public void invalidate(String authorId) {
+        synchronized (entries) {
+            entries.remove(authorId);
+        }
+    }
+
+    private AuthorProfile lookup(String authorId) {
+        synchronized (entries) {
+            Entry e = entries.get(authorId);
+            if (e == null) return null;
+            if (e.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(authorId);
+                return null;
+            }
+            return e.profile;
+        }
+    }
+
+    private void store(String authorId, AuthorProfile profile) {
+        if (profile == null) return;
+        synchronized (entries) {
+            entries.put(authorId, new Entry(profile, System.currentTimeMillis() + ttlMillis));
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); // least recently used first
+            while (entries.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static AuthorProfile await(CompletableFuture<AuthorProfile> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex.getCause() instanceof Exception e ? e : ex;
+        }
+    }
+
+    public long hits() { return hits.get(); }
+    public long misses() { return misses.get(); }
+    public long coalesced() { return coalesced.get(); }
+    public long evictions() { return evictions.get(); }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d hits=%d misses=%d coalesced=%d evictions=%d",
+                size(), maxEntries, hits(), misses(), coalesced(), evictions());
+    }
+
+    private record Entry(AuthorProfile profile, long expiresAt) {}
+}
@@ -0,0 +1,185 @@
+package org.example.scholar.service;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * KeywordExtractor derives the keywords stored with each article from its title.
+ *
+ * How it works:
+ *  - A single pass over the characters splits the title into lower-case tokens, reusing a
+ *    per-thread buffer; stopwords are rejected straight from that buffer, so only kept terms
+ *    become Strings.
+ *  - Terms are scored with TF-IDF against corpus statistics (document frequency per term);
+ *    common words across the corpus sink, distinctive ones rise. Without statistics every
+ *    term weighs the same and the first terms of the title win.
+ *  - The best {@link #MAX_KEYWORDS} terms are returned, comma separated.
+ */
+public class KeywordExtractor {
+    public static final int MAX_KEYWORDS = 6;
+    private static final int MIN_TERM_LENGTH = 4;
+    private static final int MAX_TERMS = 64;     // distinct terms kept per title
+    private static final int MAX_TOKEN = 64;     // longer tokens are truncated
+
+    // Shared stopword table (open addressing, String.hashCode), built once
+    private static final String[] STOPWORDS = buildTable(
+            // English
+            "the", "a", "an", "of", "and", "for", "to", "in", "on", "with", "by", "from",
+            "using", "based", "analysis", "study", "model", "about", "after", "also", "among",
+            "been", "before", "being", "between", "both", "does", "during", "each", "have",
+            "into", "more", "most", "new", "other", "over", "some", "such", "than", "that",
+            "their", "them", "then", "there", "these", "they", "this", "those", "through",
+            "toward", "towards", "under", "upon", "versus", "very", "were", "what", "when",
+            "where", "which", "while", "within", "without", "your", "case", "approach",
+            // Spanish
+            "para", "como", "entre", "sobre", "desde", "hacia", "mediante", "según", "segun",
+            "este", "esta", "estos", "estas", "unos", "unas", "otros", "otras", "cual",
+            "cuando", "donde", "estudio", "análisis", "modelo", "caso");
+
+    private static final KeywordExtractor SHARED = new KeywordExtractor();
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private volatile CorpusStats stats = CorpusStats.EMPTY;
+
+    /** Process-wide extractor; its statistics are replaced with {@link #useStats}. */
+    public static KeywordExtractor shared() {
+        return SHARED;
+    }
+
+    public void useStats(CorpusStats stats) {
+        this.stats = stats != null ? stats : CorpusStats.EMPTY;
+    }
+
+    public CorpusStats stats() {
+        return stats;
+    }
+
+    /** Returns up to {@link #MAX_KEYWORDS} comma-separated keywords for a title ("" if none). */
+    public String keywords(String title) {
+        if (title == null || title.isEmpty()) return "";
+        Scratch s = scratch.get();
+        int n = collect(title, s);
+        if (n == 0) return "";
+
+        CorpusStats st = stats;
+        for (int i = 0; i < n; i++) {
+            s.score[i] = s.tf[i] * st.idf(s.terms[i]);
+        }
+
+        // Selection of the best MAX_KEYWORDS: higher score first, earlier position on ties
+        StringBuilder out = s.out;
+        out.setLength(0);
+        int picked = Math.min(MAX_KEYWORDS, n);
+        for (int k = 0; k < picked; k++) {
+            int best = -1;
+            for (int i = 0; i < n; i++) {
+                if (s.terms[i] == null) continue;
+                if (best < 0 || s.score[i] > s.score[best]) best = i; // i > best: ties keep the earlier term
+            }
+            if (out.length() > 0) out.append(',');
+            out.append(s.terms[best]);
+            s.terms[best] = null;
+        }
+        return out.toString();
+    }
+
+    /** Calls the consumer once per distinct kept term of the title (for document frequencies). */
+    public void distinctTerms(String title, Consumer<String> consumer) {
+        if (title == null || title.isEmpty()) return;
+        Scratch s = scratch.get();
+        int n = collect(title, s);
+        for (int i = 0; i < n; i++) consumer.accept(s.terms[i]);
+    }
+
+    // Tokenizes the title into s.terms/s.tf in order of first appearance; returns the number of terms
+    private static int collect(String title, Scratch s) {
+        char[] buf = s.buf;
+        int n = 0;
+        int len = 0;
+        int hash = 0;
+        for (int i = 0, end = title.length(); i <= end; i++) {
+            char c = i < end ? title.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (len < MAX_TOKEN) {
+                    char lc = Character.toLowerCase(c);
+                    buf[len++] = lc;
+                    hash = 31 * hash + lc;
+                }
+                continue;
+            }
+            if (len >= MIN_TERM_LENGTH && !isStopword(buf, len, hash)) {
+                n = add(s, n, buf, len);
+            }
+            len = 0;
+            hash = 0;
+        }
+        return n;
+    }
+
+    private static int add(Scratch s, int n, char[] buf, int len) {
+        for (int i = 0; i < n; i++) {
+            if (equals(s.terms[i], buf, len)) {
+                s.tf[i]++;
+                return n;
+            }
+        }
+        if (n == MAX_TERMS) return n;
+        s.terms[n] = new String(buf, 0, len);
+        s.tf[n] = 1;
+        return n + 1;
+    }
+
+    private static boolean isStopword(char[] buf, int len, int hash) {
+        int mask = STOPWORDS.length - 1;
+        for (int i = mix(hash) & mask; STOPWORDS[i] != null; i = (i + 1) & mask) {
+            if (equals(STOPWORDS[i], buf, len)) return true;
+        }
+        return false;
+    }
+
+    private static boolean equals(String s, char[] buf, int len) {
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) if (s.charAt(i) != buf[i]) return false;
+        return true;
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static String[] buildTable(String... words) {
+        int size = Integer.highestOneBit(words.length * 4);
+        String[] table = new String[size];
+        for (String w : words) {
+            int i = mix(w.hashCode()) & (size - 1);
+            while (table[i] != null && !table[i].equals(w)) i = (i + 1) & (size - 1);
+            table[i] = w;
+        }
+        return table;
+    }
+
+    /** Per-thread buffers reused across titles. */
+    private static final class Scratch {
+        final char[] buf = new char[MAX_TOKEN];
+        final String[] terms = new String[MAX_TERMS];
+        final int[] tf = new int[MAX_TERMS];
+        final double[] score = new double[MAX_TERMS];
+        final StringBuilder out = new StringBuilder(64);
+    }
+
+    /**
+     * Document frequencies of title terms over the whole corpus.
+     * @param documents Number of titles the statistics were computed from.
+     * @param df        Titles containing each term.
+     */
+    public record CorpusStats(long documents, Map<String, Integer> df) {
+        public static final CorpusStats EMPTY = new CorpusStats(0, Map.of());
+
+        /** Smoothed inverse document frequency; 1 for every term when there are no statistics. */
+        public double idf(String term) {
+            if (documents == 0) return 1.0;
+            Integer d = df.get(term);
+            return Math.log((documents + 1.0) / ((d != null ? d : 0) + 1.0)) + 1.0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.scholar.service;
+
+/**
+ * LongHashSet is an open-addressing set of 64-bit keys stored in a single long[].
+ *
+ * It takes 8-16 bytes per entry (no boxing, no per-entry objects), which is what lets
+ * DuplicateIndex remember millions of candidate pairs, each packed into one long.
+ * Not thread-safe.
+ */
+public class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L; // stands in for the key 0
+
+    private long[] table;
+    private int size;
+
+    public LongHashSet(int expected) {
+        table = new long[tableSize(expected)];
+    }
+
+    /** Adds the key; returns false if it was already present. */
+    public boolean add(long key) {
+        if (key == EMPTY) key = ZERO_KEY;
+        if (size >= (table.length >> 1) + (table.length >> 2)) grow(); // load factor 0.75
+        if (!insert(table, key)) return false;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) key = ZERO_KEY;
+        int mask = table.length - 1;
+        for (int i = slot(key, mask); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == key) return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] t, long key) {
+        int mask = t.length - 1;
+        int i = slot(key, mask);
+        while (t[i] != EMPTY) {
+            if (t[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        t[i] = key;
+        return true;
+    }
+
+    private void grow() {
+        long[] bigger = new long[table.length << 1];
+        for (long k : table) if (k != EMPTY) insert(bigger, k);
+        table = bigger;
+    }
+
+    // Keys are usually hashes already; the extra mix guards against weak low bits
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSize(int expected) {
+        int n = 16;
+        while (n * 3L / 4 < expected && n < (1 << 30)) n <<= 1;
+        return n;
+    }
+}
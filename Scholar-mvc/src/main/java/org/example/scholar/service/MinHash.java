@@ -0,0 +1,155 @@
+package org.example.scholar.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * MinHash turns an article (title + authors) into a compact signature whose agreement with
+ * another signature estimates the Jaccard similarity of their feature sets.
+ *
+ * Features:
+ *  - Character 4-grams of the normalized title: lower case, accents and punctuation removed,
+ *    whitespace collapsed, so case and punctuation variants produce the same set.
+ *  - When the title has a subtitle (after ':' or " - ") and the main part has at least three
+ *    words, only the main part is used; {@link Features#hasSubtitle()} lets the caller tell
+ *    "X" from "X: part 2".
+ *  - The surnames of the first three authors, which later authors' truncation does not change.
+ * Signatures are split into bands of rows; two articles that agree on every row of any band
+ * become candidates (LSH), so near-duplicates are found without comparing every pair.
+ */
+public final class MinHash {
+    public static final int SHINGLE = 4;
+    public static final int AUTHORS = 3;
+
+    private final int hashes;
+    private final int rowsPerBand;
+    private final long[] seeds;
+
+    /** Features of one article: sorted distinct feature hashes and whether a subtitle was cut. */
+    public record Features(int[] hashes, String title, boolean hasSubtitle) {}
+
+    /**
+     * @param hashes      Signature length.
+     * @param rowsPerBand Rows per LSH band; hashes must be a multiple of it. With b bands of r rows
+     *                    the similarity at which pairs become likely candidates is about (1/b)^(1/r).
+     */
+    public MinHash(int hashes, int rowsPerBand) {
+        if (hashes <= 0 || rowsPerBand <= 0 || hashes % rowsPerBand != 0) {
+            throw new IllegalArgumentException("hashes must be a positive multiple of rowsPerBand");
+        }
+        this.hashes = hashes;
+        this.rowsPerBand = rowsPerBand;
+        this.seeds = new long[hashes];
+        long s = 0x2545F4914F6CDD1DL; // fixed seeds: signatures are comparable across runs
+        for (int i = 0; i < hashes; i++) {
+            s += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(s);
+        }
+    }
+
+    public int bands() { return hashes / rowsPerBand; }
+
+    /** Normalized title (main part only when a subtitle could be cut) and its feature hashes. */
+    public static Features features(String title, String authors) {
+        String full = title == null ? "" : title;
+        String main = mainTitle(full);
+        String normalized = normalize(main != null ? main : full);
+
+        int[] out = new int[Math.max(1, normalized.length()) + AUTHORS];
+        int n = 0;
+        if (normalized.length() <= SHINGLE) {
+            if (!normalized.isEmpty()) out[n++] = normalized.hashCode();
+        } else {
+            for (int i = 0; i + SHINGLE <= normalized.length(); i++) {
+                int h = 0;
+                for (int k = i; k < i + SHINGLE; k++) h = 31 * h + normalized.charAt(k);
+                out[n++] = h;
+            }
+        }
+        int added = 0;
+        for (String name : ScholarUtils.splitAuthors(authors)) {
+            if (added == AUTHORS) break;
+            String surname = ScholarUtils.surname(name);
+            if (surname.isEmpty()) continue;
+            out[n++] = ("@" + surname).hashCode(); // prefix keeps surnames apart from title shingles
+            added++;
+        }
+        int[] set = Arrays.copyOf(out, n);
+        Arrays.sort(set);
+        int distinct = 0;
+        for (int i = 0; i < set.length; i++) if (i == 0 || set[i] != set[i - 1]) set[distinct++] = set[i];
+        return new Features(Arrays.copyOf(set, distinct), normalized, main != null);
+    }
+
+    /** MinHash signature of a feature set (all Integer.MAX_VALUE for an empty set). */
+    public int[] signature(int[] features) {
+        int[] sig = new int[hashes];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        for (int f : features) {
+            for (int i = 0; i < hashes; i++) {
+                int h = (int) mix(f ^ seeds[i]);
+                if (h < sig[i]) sig[i] = h;
+            }
+        }
+        return sig;
+    }
+
+    /** One hash per band, written to out (length {@link #bands()}). */
+    public void bandKeys(int[] signature, int[] out) {
+        for (int b = 0; b < out.length; b++) {
+            int h = b; // the band number is mixed in so equal rows in different bands do not collide
+            for (int r = b * rowsPerBand; r < (b + 1) * rowsPerBand; r++) h = 31 * h + signature[r];
+            out[b] = (int) mix(h);
+        }
+    }
+
+    /** Exact Jaccard similarity of two sorted feature sets. */
+    public static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 && b.length == 0) return 1;
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) { common++; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /** Lower case, no accents, letters and digits only, single spaces. */
+    public static String normalize(String s) {
+        String d = Normalizer.normalize(s, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(d.length());
+        boolean space = true;
+        for (int i = 0; i < d.length(); i++) {
+            char c = d.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    // Text before the first ':' or " - " when it has at least three words, else null
+    private static String mainTitle(String title) {
+        int cut = title.indexOf(':');
+        int dash = title.indexOf(" - ");
+        if (cut < 0 || (dash >= 0 && dash < cut)) cut = dash;
+        if (cut <= 0) return null;
+        String main = title.substring(0, cut);
+        return normalize(main).split(" ").length >= 3 ? main : null;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
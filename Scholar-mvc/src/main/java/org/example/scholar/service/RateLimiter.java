@@ -0,0 +1,228 @@
+package org.example.scholar.service;
+
+import org.example.scholar.metrics.Counter;
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.metrics.Timer;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * RateLimiter paces every SerpApi request through a token bucket and retries
+ * throttled calls (HTTP 429) instead of failing the whole run.
+ *
+ * Behaviour:
+ *  - Tokens refill at a configurable rate up to a maximum burst.
+ *  - A 429 pauses the bucket for all callers, honoring Retry-After when the
+ *    server sends it and falling back to jittered exponential backoff otherwise.
+ *  - Counters report how many calls were throttled, retried and dropped.
+ *
+ * One instance is meant to be shared by every client that spends the same API quota
+ * (see {@link #shared()}).
+ */
+public class RateLimiter {
+    private static volatile RateLimiter shared;
+    private static final Timer WAIT_TIMER = Metrics.shared().timer("fetch.limiterWait");
+    private static final Counter RETRIES = Metrics.shared().counter("http.retries");
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    // Bucket state, guarded by "this"
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param permitsPerSecond Sustained request rate.
+     * @param burst            Maximum number of requests that may be sent back to back.
+     * @param maxRetries       Retries per call after a 429 before the call is dropped.
+     * @param baseBackoffMillis First backoff step when no Retry-After header is present.
+     * @param maxBackoffMillis  Upper bound for any single backoff.
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int maxRetries,
+                       long baseBackoffMillis, long maxBackoffMillis) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        if (burst < 1) throw new IllegalArgumentException("burst must be >= 1");
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Process-wide limiter configured from system properties:
+     * serpapi.rate (requests/second, default 1), serpapi.burst (default 1),
+     * serpapi.maxRetries (default 5).
+     */
+    public static RateLimiter shared() {
+        RateLimiter r = shared;
+        if (r == null) {
+            synchronized (RateLimiter.class) {
+                r = shared;
+                if (r == null) {
+                    r = new RateLimiter(
+                            Double.parseDouble(System.getProperty("serpapi.rate", "1")),
+                            Integer.getInteger("serpapi.burst", 1),
+                            Integer.getInteger("serpapi.maxRetries", 5),
+                            500, 60_000);
+                    shared = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Takes one token and returns how many nanoseconds the caller must wait before sending.
+     * Tokens may go negative, so concurrent callers are queued one interval apart.
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+        lastRefillNanos = now;
+        tokens -= 1;
+        long wait = tokens >= 0 ? 0 : (long) (-tokens * 1e9 / permitsPerSecond);
+        return Math.max(wait, pausedUntilNanos - now);
+    }
+
+    /**
+     * Runs a call under the limiter. The wait for a token and the retry delays are scheduled
+     * instead of slept, so no thread is held while a call is queued or backing off.
+     * A call whose future fails with {@link ThrottledException} is started again after the
+     * server-requested or backoff delay, up to maxRetries.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(call, 0, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> result) {
+        long wait = reserve();
+        WAIT_TIMER.record(wait);
+        Executor when = wait > 0
+                ? CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+        when.execute(() -> {
+            CompletableFuture<T> f;
+            try {
+                f = call.get();
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            f.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof ThrottledException ex)) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                long delay = onThrottled(ex, attempt);
+                if (delay < 0) {
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                        .execute(() -> attemptAsync(call, attempt + 1, result));
+            });
+        });
+    }
+
+    /**
+     * Records a 429 and pauses the bucket.
+     * @return milliseconds to wait before retrying, or -1 when the call must be dropped.
+     */
+    public long onThrottled(ThrottledException ex, int attempt) {
+        throttled.incrementAndGet();
+        if (attempt >= maxRetries) {
+            dropped.incrementAndGet();
+            return -1;
+        }
+        long delay = ex.retryAfterMillis() >= 0 ? ex.retryAfterMillis() : backoffMillis(attempt);
+        pause(delay);
+        retried.incrementAndGet();
+        RETRIES.increment();
+        return delay;
+    }
+
+    /** Full-jitter exponential backoff: a random delay in [0, min(max, base * 2^attempt)]. */
+    long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    // Nobody sends until the pause is over, and the burst is spent so traffic restarts slowly
+    private synchronized void pause(long millis) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        pausedUntilNanos = Math.max(pausedUntilNanos, until);
+        tokens = Math.min(tokens, 0);
+    }
+
+    /**
+     * Parses a Retry-After header (delta-seconds or HTTP-date).
+     * @return milliseconds to wait, or -1 if the header is absent or malformed.
+     */
+    public static long parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) return -1;
+        String v = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(v) * 1000);
+        } catch (NumberFormatException ignored) {
+            // not delta-seconds, try HTTP-date
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+
+    public long throttledCount() { return throttled.get(); }
+    public long retriedCount() { return retried.get(); }
+    public long droppedCount() { return dropped.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%.2f/s burst=%d throttled=%d retried=%d dropped=%d",
+                permitsPerSecond, burst, throttledCount(), retriedCount(), droppedCount());
+    }
+
+    /** Fails a call's future when the server answered HTTP 429. */
+    public static class ThrottledException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfterMillis;
+
+        public ThrottledException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long retryAfterMillis() { return retryAfterMillis; }
+    }
+}
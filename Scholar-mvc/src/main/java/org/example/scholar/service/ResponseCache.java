@@ -0,0 +1,286 @@
+package org.example.scholar.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResponseCache stores raw SerpApi response bodies so repeated lookups of the same
+ * author do not spend quota or wait on the network.
+ *
+ * Two tiers:
+ *  - Memory: an LRU map bounded by total body bytes.
+ *  - Disk: one gzip file per key, bounded by total bytes; the least recently used
+ *    files are deleted first.
+ * Every entry carries its own expiry time; expired entries are treated as misses.
+ */
+public class ResponseCache {
+    private static volatile ResponseCache shared;
+
+    private final Path dir;               // null = no disk tier
+    private final long defaultTtlMillis;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;             // guarded by "memory"
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param dir              Directory for the disk tier, or null to keep entries in memory only.
+     * @param defaultTtlMillis Time to live used by {@link #put(String, byte[])}.
+     * @param maxMemoryBytes   Bound for the in-memory tier (0 disables it).
+     * @param maxDiskBytes     Bound for the disk tier.
+     */
+    public ResponseCache(Path dir, long defaultTtlMillis, long maxMemoryBytes, long maxDiskBytes) {
+        this.dir = dir;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        if (dir != null) {
+            try {
+                Files.createDirectories(dir);
+                diskBytes.set(scanDiskBytes());
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot use cache directory " + dir, ex);
+            }
+        }
+    }
+
+    /** A cache that never stores anything. */
+    public static ResponseCache disabled() {
+        return new ResponseCache(null, 0, 0, 0);
+    }
+
+    /**
+     * Process-wide cache configured from system properties:
+     * serpapi.cache (on/off, default on), serpapi.cache.dir (default .serpapi-cache),
+     * serpapi.cache.ttlHours (default 24), serpapi.cache.memoryMb (default 32),
+     * serpapi.cache.diskMb (default 512).
+     */
+    public static ResponseCache shared() {
+        ResponseCache c = shared;
+        if (c == null) {
+            synchronized (ResponseCache.class) {
+                c = shared;
+                if (c == null) {
+                    if ("off".equalsIgnoreCase(System.getProperty("serpapi.cache", "on"))) {
+                        c = disabled();
+                    } else {
+                        c = new ResponseCache(
+                                Path.of(System.getProperty("serpapi.cache.dir", ".serpapi-cache")),
+                                Long.getLong("serpapi.cache.ttlHours", 24) * 3_600_000L,
+                                Long.getLong("serpapi.cache.memoryMb", 32) << 20,
+                                Long.getLong("serpapi.cache.diskMb", 512) << 20);
+                    }
+                    shared = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Builds a cache key from the engine, the author and the remaining query parameters.
+     * Parameters are sorted so their order does not matter. Never pass the api_key here.
+     */
+    public static String key(String engine, String authorId, Map<String, ?> params) {
+        StringBuilder sb = new StringBuilder(engine).append('|').append(authorId);
+        for (Map.Entry<String, ?> p : new TreeMap<>(params).entrySet()) {
+            sb.append('|').append(p.getKey()).append('=').append(p.getValue());
+        }
+        return sb.toString();
+    }
+
+    /** Returns the cached body, or null on a miss or an expired entry. */
+    public byte[] get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry e = memory.get(key);
+            if (e != null) {
+                if (e.expiresAt > now) {
+                    memoryHits.incrementAndGet();
+                    return e.body;
+                }
+                memory.remove(key);
+                memoryBytes -= e.body.length;
+            }
+        }
+        if (dir != null) {
+            Entry e = readDisk(key, now);
+            if (e != null) {
+                diskHits.incrementAndGet();
+                putMemory(key, e);
+                return e.body;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, byte[] body) {
+        put(key, body, defaultTtlMillis);
+    }
+
+    public void put(String key, byte[] body, long ttlMillis) {
+        if (ttlMillis <= 0) return;
+        Entry e = new Entry(body, System.currentTimeMillis() + ttlMillis);
+        putMemory(key, e);
+        if (dir != null) writeDisk(key, e);
+    }
+
+    // --- Memory tier ---
+
+    private void putMemory(String key, Entry e) {
+        if (e.body.length > maxMemoryBytes) return;
+        synchronized (memory) {
+            Entry old = memory.put(key, e);
+            if (old != null) memoryBytes -= old.body.length;
+            memoryBytes += e.body.length;
+            Iterator<Entry> it = memory.values().iterator(); // eldest (least recently used) first
+            while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+                memoryBytes -= it.next().body.length;
+                it.remove();
+            }
+        }
+    }
+
+    // --- Disk tier: [expiresAt:long][gzip(body)] ---
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return dir.resolve(HexFormat.of().formatHex(digest, 0, 16) + ".gz");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Entry readDisk(String key, long now) {
+        Path f = fileFor(key);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(f))) {
+            long expiresAt = in.readLong();
+            if (expiresAt <= now) {
+                deleteDisk(f);
+                return null;
+            }
+            byte[] body;
+            try (InputStream gz = new GZIPInputStream(in)) {
+                body = gz.readAllBytes();
+            }
+            Files.setLastModifiedTime(f, FileTime.fromMillis(now)); // mark as recently used
+            return new Entry(body, expiresAt);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            deleteDisk(f); // corrupt or truncated entry
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, Entry e) {
+        Path f = fileFor(key);
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(e.body.length / 4 + 64);
+            try (DataOutputStream out = new DataOutputStream(buf)) {
+                out.writeLong(e.expiresAt);
+                try (OutputStream gz = new GZIPOutputStream(out)) {
+                    gz.write(e.body);
+                }
+            }
+            long oldSize = Files.exists(f) ? Files.size(f) : 0;
+            Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+            Files.write(tmp, buf.toByteArray());
+            Files.move(tmp, f, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(buf.size() - oldSize) > maxDiskBytes) evictDisk();
+        } catch (IOException ex) {
+            // The disk tier is best-effort: the response is still served from memory
+        }
+    }
+
+    private void deleteDisk(Path f) {
+        try {
+            long size = Files.size(f);
+            if (Files.deleteIfExists(f)) diskBytes.addAndGet(-size);
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    // Deletes least recently used files until the tier is back under 90% of its bound
+    private synchronized void evictDisk() throws IOException {
+        if (diskBytes.get() <= maxDiskBytes) return;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.gz")) {
+            ds.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(ResponseCache::lastModified));
+        long target = maxDiskBytes * 9 / 10;
+        for (Path f : files) {
+            if (diskBytes.get() <= target) break;
+            deleteDisk(f);
+        }
+    }
+
+    private long scanDiskBytes() throws IOException {
+        long total = 0;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.gz")) {
+            for (Path f : ds) total += Files.size(f);
+        }
+        return total;
+    }
+
+    private static long lastModified(Path f) {
+        try {
+            return Files.getLastModifiedTime(f).toMillis();
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    public long memoryHits() { return memoryHits.get(); }
+    public long diskHits() { return diskHits.get(); }
+    public long misses() { return misses.get(); }
+
+    @Override
+    public String toString() {
+        synchronized (memory) {
+            return String.format("memoryHits=%d diskHits=%d misses=%d entries=%d memoryBytes=%d diskBytes=%d",
+                    memoryHits(), diskHits(), misses(), memory.size(), memoryBytes, diskBytes.get());
+        }
+    }
+
+    /** True when at least one tier can hold entries. */
+    public boolean isEnabled() {
+        return dir != null || maxMemoryBytes > 0;
+    }
+
+    private record Entry(byte[] body, long expiresAt) {}
+}
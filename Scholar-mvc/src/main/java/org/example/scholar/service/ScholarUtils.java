@@ -1,26 +1,51 @@
 package org.example.scholar.service;
 
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ScholarUtils {
-    private static final Pattern USER_PARAM = Pattern.compile("[?&]user=([^&]+)");
+    private static final String DEFAULT_SERPAPI_BASE = "https://serpapi.com";
+
+    /**
+     * Root URL of the SerpApi endpoints, from the serpapi.baseUrl system property
+     * (default https://serpapi.com). Point it at a local stub to test without spending quota.
+     */
+    public static String serpApiBaseUrl() {
+        String base = System.getProperty("serpapi.baseUrl", DEFAULT_SERPAPI_BASE).trim();
+        while (base.endsWith("/")) base = base.substring(0, base.length() - 1);
+        return base;
+    }
 
     public static String extractAuthorIdFromUrl(String url) {
-        if (url == null) return null;
-        Matcher m = USER_PARAM.matcher(url);
-        if (m.find()) {
-            String raw = m.group(1);
-            return URLDecoder.decode(raw, StandardCharsets.UTF_8);
-        }
-        return null;
+        return AuthorIdScanner.fromUrl(url);
     }
 
     public static boolean looksLikeAuthorId(String s) {
-        if (s == null) return false;
-        String x = s.trim();
-        return x.matches("^[A-Za-z0-9_-]{8,30}$");
+        return AuthorIdScanner.looksLikeId(s);
+    }
+
+    /**
+     * Splits the comma-joined authors string from SerpApi. Blank entries and the "..." that
+     * marks a truncated list are dropped.
+     */
+    public static List<String> splitAuthors(String authors) {
+        List<String> names = new ArrayList<>();
+        if (authors == null) return names;
+        int start = 0;
+        while (start <= authors.length()) {
+            int comma = authors.indexOf(',', start);
+            int end = comma < 0 ? authors.length() : comma;
+            String name = authors.substring(start, end).strip();
+            if (!name.isEmpty() && !name.equals("...") && !name.equals("…")) names.add(name);
+            start = end + 1;
+        }
+        return names;
+    }
+
+    /** Last word of an author name as written by Scholar ("J Smith" -> "smith"), lower-cased. */
+    public static String surname(String name) {
+        String n = name.strip();
+        int space = n.lastIndexOf(' ');
+        return (space < 0 ? n : n.substring(space + 1)).toLowerCase();
     }
 }
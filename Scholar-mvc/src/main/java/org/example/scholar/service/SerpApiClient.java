@@ -1,30 +1,54 @@
 package org.example.scholar.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.HttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.example.scholar.metrics.Counter;
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.metrics.Timer;
 import org.example.scholar.model.AuthorProfile;
 import org.example.scholar.model.AuthorSearchResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SerpApiClient {
-    // Base URL for all SerpApi requests
-    private static final String BASE = "https://serpapi.com/search";
+    private static final int DEFAULT_TOP_ARTICLES = 5;
+
+    // Same stage names as ScholarClient, so both clients add up in one view (HTTP ones: SerpApiHttp)
+    private static final Timer PARSE_TIMER = Metrics.shared().timer("fetch.parse");
+    private static final Counter CACHE_HITS = Metrics.shared().counter("cache.hits");
 
     private final String apiKey;
-    private final HttpClient http;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final String searchUrl; // endpoint for all SerpApi requests
+    private final SerpApiHttp http;
+    private final RateLimiter limiter;
+    private final ResponseCache cache;
 
     public SerpApiClient(String apiKey) {
+        // Share the quota and the response cache with every other SerpApi client
+        this(apiKey, RateLimiter.shared(), ResponseCache.shared());
+    }
+
+    public SerpApiClient(String apiKey, RateLimiter limiter, ResponseCache cache) {
+        this(apiKey, limiter, cache, ScholarUtils.serpApiBaseUrl());
+    }
+
+    /**
+     * @param baseUrl Root URL of the API, e.g. https://serpapi.com or a local stub server.
+     */
+    public SerpApiClient(String apiKey, RateLimiter limiter, ResponseCache cache, String baseUrl) {
         this.apiKey = apiKey;
-        this.http = HttpClients.createDefault(); // Create default Apache HttpClient
+        this.searchUrl = baseUrl + "/search";
+        this.limiter = limiter;
+        this.cache = cache;
+        this.http = SerpApiHttp.shared(); // One async HTTP stack for every SerpApi client
     }
 
     /**
@@ -36,81 +60,114 @@ public class SerpApiClient {
     }
 
     /**
-     * Fetches the profile of a scholar author from SerpApi using their author_id.
+     * Fetches the profile of a scholar author from SerpApi using their author_id,
+     * keeping the top 5 articles.
      * @param authorId The Google Scholar author_id (extracted from profile URL).
      * @return AuthorProfile object with parsed information.
      */
     public AuthorProfile getAuthorProfile(String authorId) throws Exception {
+        return getAuthorProfile(authorId, DEFAULT_TOP_ARTICLES);
+    }
+
+    /**
+     * Same as {@link #getAuthorProfile(String)} but keeps up to maxArticles articles
+     * from the first page of results.
+     */
+    public AuthorProfile getAuthorProfile(String authorId, int maxArticles) throws Exception {
+        try {
+            return getAuthorProfileAsync(authorId, maxArticles).join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof Exception e ? e : ex;
+        }
+    }
+
+    /**
+     * Non-blocking {@link #getAuthorProfile(String, int)}: the future completes when the response
+     * has arrived and been parsed, and no thread waits in between.
+     */
+    public CompletableFuture<AuthorProfile> getAuthorProfileAsync(String authorId, int maxArticles) {
+        // Serve repeated lookups from the cache (the key never contains the api_key)
+        String cacheKey = ResponseCache.key("google_scholar_author", authorId, Map.of("hl", "en"));
+        byte[] cached = cache.get(cacheKey);
+        if (cached != null) {
+            CACHE_HITS.increment();
+            return CompletableFuture.supplyAsync(() -> parse(new ByteArrayInputStream(cached), maxArticles, null), Runnable::run);
+        }
+
         // Build the request URL
-        String url = BASE
+        String url = searchUrl
                 + "?engine=google_scholar_author"
                 + "&author_id=" + URLEncoder.encode(authorId, StandardCharsets.UTF_8)
                 + "&hl=en"
                 + "&api_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
 
-        HttpGet get = new HttpGet(url);
+        // The rate limiter paces the call and retries it when SerpApi answers 429;
+        // the body is parsed on a virtual thread as it arrives
+        return http.get(url, limiter, body -> parse(body, maxArticles, cacheKey));
+    }
 
-        // Execute HTTP GET request and capture response body
-        String body = http.execute(get, response -> {
-            int status = response.getCode();
-            String txt = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) : "";
-            if (status >= 200 && status < 300) {
-                return txt; // Return body if request was successful
-            } else {
-                throw new RuntimeException("HTTP " + status + " - " + txt); // Throw error with details
+    // cacheKey != null: a network response. A 2xx body can still carry a SerpApi error ({"error": ...});
+    // those fail, and only successful ones are cached
+    private AuthorProfile parse(InputStream body, int maxArticles, String cacheKey) {
+        List<AuthorProfile.Article> articles = new ArrayList<>();
+        long t = PARSE_TIMER.start();
+        AuthorJsonParser.Summary summary;
+        byte[] json = null;
+        try {
+            // Caching needs the whole JSON; without a cache it is parsed as it is decompressed
+            if (cacheKey != null && cache.isEnabled()) json = body.readAllBytes();
+            summary = AuthorJsonParser.parse(json != null ? new ByteArrayInputStream(json) : body,
+                    maxArticles, articleCollector(articles));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Invalid SerpApi response", ex);
+        }
+        PARSE_TIMER.stop(t);
+        if (cacheKey != null) {
+            if (!summary.success()) {
+                String msg = summary.error() != null ? summary.error() : "unknown SerpApi error";
+                throw new RuntimeException("SerpApi status=\"" + summary.status() + "\": " + msg);
             }
-        });
+            if (json != null) cache.put(cacheKey, json);
+        }
+        return toProfile(summary, articles);
+    }
 
-        // Parse JSON response
-        JsonNode root = mapper.readTree(body);
+    // Each article contains title, link, publication, year, and citation count
+    private static AuthorJsonParser.ArticleSink articleCollector(List<AuthorProfile.Article> articles) {
+        return (title, link, authors, publication, year, citedBy, snippet) -> {
+            AuthorProfile.Article art = new AuthorProfile.Article();
+            art.title = title;                 // Article title
+            art.link = link;                   // Article link
+            art.publication = publication;     // Journal or publisher
+            art.year = parseYear(year);        // Publication year (SerpApi sends it as a string)
+            art.citedBy = citedBy;             // Citation count
+            articles.add(art);
+        };
+    }
 
+    private static AuthorProfile toProfile(AuthorJsonParser.Summary summary, List<AuthorProfile.Article> articles) {
         // Create an AuthorProfile object to store the parsed data
         AuthorProfile profile = new AuthorProfile();
-        profile.setName(root.path("author").path("name").asText(null));          // Author name
-        profile.setAffiliations(root.path("author").path("affiliations").asText(null)); // Author affiliation
+        profile.setName(summary.name());                 // Author name
+        profile.setAffiliations(summary.affiliations()); // Author affiliation
 
-        // === Extract citation metrics ===
         // SerpApi provides citations, h-index, and i10-index in separate objects inside "cited_by.table"
         AuthorProfile.Metrics m = new AuthorProfile.Metrics();
-        JsonNode table = root.path("cited_by").path("table");
-
-        if (table.isArray()) {
-            for (JsonNode entry : table) {
-                // Total citations
-                if (entry.has("citations")) {
-                    m.citations = entry.path("citations").path("all").asInt(0);
-                }
-                // h-index
-                if (entry.has("h_index")) {
-                    m.hIndex = entry.path("h_index").path("all").asInt(0);
-                }
-                // i10-index
-                if (entry.has("i10_index")) {
-                    m.i10Index = entry.path("i10_index").path("all").asInt(0);
-                }
-            }
-        }
+        m.citations = summary.citations();
+        m.hIndex = summary.hIndex();
+        m.i10Index = summary.i10Index();
         profile.setMetrics(m);
 
-        // === Extract top 5 articles ===
-        // Each article contains title, link, publication, year, and citation count
-        List<AuthorProfile.Article> articles = new ArrayList<>();
-        JsonNode arts = root.path("articles");
-        int count = 0;
-        if (arts.isArray()) {
-            for (JsonNode a : arts) {
-                AuthorProfile.Article art = new AuthorProfile.Article();
-                art.title = a.path("title").asText(null);                // Article title
-                art.link = a.path("link").asText(null);                  // Article link
-                art.publication = a.path("publication").asText(null);    // Journal or publisher
-                art.year = a.path("year").isInt() ? a.path("year").asInt() : null; // Publication year
-                art.citedBy = a.path("cited_by").path("value").isInt() ? a.path("cited_by").path("value").asInt() : null; // Citation count
-                articles.add(art);
-                if (++count >= 5) break; // Limit to 5 articles
-            }
-        }
         profile.setTopArticles(articles);
-
         return profile;
     }
+
+    private static Integer parseYear(String year) {
+        if (year == null || year.isBlank()) return null;
+        try {
+            return Integer.valueOf(year.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
 }
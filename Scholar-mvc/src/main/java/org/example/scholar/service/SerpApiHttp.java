@@ -0,0 +1,221 @@
+package org.example.scholar.service;
+
+import org.example.scholar.metrics.Counter;
+import org.example.scholar.metrics.Metrics;
+import org.example.scholar.metrics.Timer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * SerpApiHttp is the one HTTP stack behind every SerpApi client: a single java.net.http.HttpClient
+ * driven with sendAsync, so a request in flight holds no thread.
+ *
+ * Behaviour:
+ *  - HTTP/2 when the server offers it (one multiplexed connection), HTTP/1.1 with keep-alive otherwise.
+ *    The JDK pool is tuned through jdk.httpclient.* properties unless they are already set.
+ *  - Responses are requested gzip-compressed and handed to the caller's {@link BodyReader} as a stream
+ *    that is decompressed while it is read, so no full copy of the body is buffered here.
+ *  - Every request has its own timeout (serpapi.timeoutMs, default 30000) until its response headers
+ *    arrive, on top of the connect timeout.
+ *  - Calls go through the {@link RateLimiter} without sleeping: waits and 429 retries are scheduled.
+ *  - With a {@link Quota} installed (see {@link #useQuota}) every request is charged to it before it
+ *    is sent, whichever client sends it, and refused once the budget is spent.
+ *  - Non-2xx answers fail the future: {@link RateLimiter.ThrottledException} for 429, RuntimeException otherwise.
+ * The client's callbacks run on a small fixed pool of daemon threads (serpapi.httpThreads, default 2),
+ * so hundreds of concurrent requests cost a handful of threads. Bodies are read, decompressed and
+ * parsed on virtual threads: the CPU work of parsing never delays the client's I/O.
+ */
+public final class SerpApiHttp {
+    private static volatile SerpApiHttp shared;
+
+    // Same stage names the clients used before, so existing dashboards keep working
+    private static final Timer HTTP_TIMER = Metrics.shared().timer("fetch.http");
+    private static final Counter REQUESTS = Metrics.shared().counter("http.requests");
+    private static final Counter HTTP_ERRORS = Metrics.shared().counter("http.errors");
+    private static final Counter BYTES_READ = Metrics.shared().counter("http.bytesRead");
+
+    // Bodies are read and parsed here, never on the client's I/O threads
+    private static final Executor READERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient http;
+    private final Duration requestTimeout;
+    private volatile Quota quota; // null: requests are not charged anywhere
+
+    /**
+     * @param threads        Threads that run the client's I/O callbacks and the continuations.
+     * @param connectTimeout Upper bound for opening a connection.
+     * @param requestTimeout Upper bound for each request, from sending until the response headers arrive.
+     */
+    public SerpApiHttp(int threads, Duration connectTimeout, Duration requestTimeout) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("serpapi-http-", 0).daemon().factory());
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Process-wide instance configured from system properties:
+     * serpapi.httpThreads (default 2), serpapi.connectTimeoutMs (default 10000),
+     * serpapi.timeoutMs (default 30000).
+     */
+    public static SerpApiHttp shared() {
+        SerpApiHttp h = shared;
+        if (h == null) {
+            synchronized (SerpApiHttp.class) {
+                h = shared;
+                if (h == null) {
+                    // Read once by the JDK when its first client is built: keep idle connections for reuse
+                    System.setProperty("jdk.httpclient.keepalive.timeout",
+                            System.getProperty("jdk.httpclient.keepalive.timeout", "120"));
+                    System.setProperty("jdk.httpclient.connectionPoolSize",
+                            System.getProperty("jdk.httpclient.connectionPoolSize", "64"));
+                    h = new SerpApiHttp(
+                            Integer.getInteger("serpapi.httpThreads", 2),
+                            Duration.ofMillis(Long.getLong("serpapi.connectTimeoutMs", 10_000)),
+                            Duration.ofMillis(Long.getLong("serpapi.timeoutMs", 30_000)));
+                    shared = h;
+                }
+            }
+        }
+        return h;
+    }
+
+    /** A shared request budget, charged once per request right before it is sent. */
+    @FunctionalInterface
+    public interface Quota {
+        /** Takes one request; false when the budget is spent. */
+        boolean tryReserve() throws Exception;
+    }
+
+    /** Thrown (as the future's failure) when the installed {@link Quota} refuses a request. */
+    public static class QuotaExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Charges every later request, retries included, to quota; null stops charging.
+     * Responses served from a cache never get here, so they cost nothing.
+     */
+    public void useQuota(Quota quota) {
+        this.quota = quota;
+    }
+
+    /** Reads the body of a 2xx response, already decompressed. */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    /**
+     * GETs a URL under the limiter and completes with what reader makes of the body of a 2xx response.
+     * The future fails with the 429 or HTTP error once the limiter gives up retrying.
+     */
+    public <T> CompletableFuture<T> get(String url, RateLimiter limiter, BodyReader<T> reader) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        return limiter.executeAsync(() -> reserve().thenCompose(reserved -> {
+            REQUESTS.increment();
+            long t = HTTP_TIMER.start(); // until the body has been read to the end, failures included
+            return http.sendAsync(req, HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApplyAsync(r -> read(r, reader), READERS)
+                    .whenComplete((v, ex) -> HTTP_TIMER.stop(t));
+        }));
+    }
+
+    // The quota may be a database write: it runs on a virtual thread, not on the limiter's or the client's
+    private CompletableFuture<Void> reserve() {
+        Quota q = quota;
+        if (q == null) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> {
+            boolean ok;
+            try {
+                ok = q.tryReserve();
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+            if (!ok) throw new QuotaExceededException("Monthly SerpApi budget spent");
+        }, READERS);
+    }
+
+    // Runs on a virtual thread: blocks while the body arrives and decodes it as it is read
+    private static <T> T read(HttpResponse<InputStream> r, BodyReader<T> reader) {
+        boolean gzip = r.headers().firstValue("Content-Encoding").map(e -> e.equalsIgnoreCase("gzip")).orElse(false);
+        try (InputStream raw = new CountingStream(r.body());
+             InputStream in = gzip ? new GZIPInputStream(raw) : raw) {
+            int status = r.statusCode();
+            if (status >= 200 && status < 300) {
+                T value = reader.read(in);
+                in.transferTo(OutputStream.nullOutputStream()); // read to the end so the connection is reused
+                return value;
+            }
+            HTTP_ERRORS.increment();
+            String txt = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (status == 429) {
+                long retryAfter = RateLimiter.parseRetryAfter(r.headers().firstValue("Retry-After").orElse(null));
+                throw new RateLimiter.ThrottledException("HTTP 429 - " + txt, retryAfter);
+            }
+            throw new RuntimeException("HTTP " + status + " - " + txt);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the SerpApi response", ex);
+        }
+    }
+
+    // Counts the bytes that came over the wire (before gunzip) into http.bytesRead
+    private static final class CountingStream extends FilterInputStream {
+        private long count;
+
+        CountingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            BYTES_READ.add(count);
+            count = 0;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.scholar.db;
+
+import org.example.scholar.model.AuthorProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthorMetricsTest {
+    private static final List<String> RESEARCHERS = List.of("R1aaaaaaaaaA", "R2bbbbbbbbbB", "R3ccccccccccC");
+
+    @TempDir
+    Path dir;
+
+    private ConnectionManager db;
+
+    @BeforeEach
+    void open() throws SQLException {
+        db = new ConnectionManager("jdbc:sqlite:" + dir.resolve("scholar.db"),
+                new ConnectionManager.Settings("NORMAL", 0, 2_000, 2, 5_000));
+        Schema.migrator(db).migrate(null);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        db.close();
+    }
+
+    @Test
+    void incrementalUpdatesMatchABruteForceComputation() throws SQLException {
+        Random random = new Random(2024);
+        AuthorMetrics metrics = new AuthorMetrics(db);
+        // Model: researcher -> article id -> cited_by (null allowed)
+        Map<String, Map<Long, Integer>> model = new HashMap<>();
+        RESEARCHERS.forEach(r -> model.put(r, new HashMap<>()));
+
+        for (int op = 0; op < 3_000; op++) {
+            String researcher = RESEARCHERS.get(random.nextInt(RESEARCHERS.size()));
+            Map<Long, Integer> articles = model.get(researcher);
+            Integer cited = random.nextInt(10) == 0 ? null : (int) Math.abs(random.nextGaussian() * 25);
+            if (articles.isEmpty() || random.nextInt(3) == 0) {
+                long id = insert(metrics, researcher, "Paper " + op, cited);
+                articles.put(id, cited);
+            } else {
+                List<Long> ids = new ArrayList<>(articles.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                update(metrics, researcher, id, articles.get(id), cited);
+                articles.put(id, cited);
+            }
+
+            if (op % 50 == 0) {
+                // The first reads load the researchers mid-run; later ones follow the incremental path
+                assertMetrics(bruteForce(model.get(researcher).values()), metrics.of(researcher), researcher);
+                List<Integer> all = new ArrayList<>();
+                model.values().forEach(m -> all.addAll(m.values()));
+                assertMetrics(bruteForce(all), metrics.of(RESEARCHERS), "cohort");
+            }
+        }
+        for (String r : RESEARCHERS) {
+            assertMetrics(bruteForce(model.get(r).values()), metrics.of(r), r);
+            assertMetrics(bruteForce(model.get(r).values()), new AuthorMetrics(db).of(r), r + " reloaded");
+        }
+    }
+
+    @Test
+    void duplicateCopiesCountOnceInACohort() throws SQLException {
+        AuthorMetrics metrics = new AuthorMetrics(db);
+        long a = insert(metrics, RESEARCHERS.get(0), "Shared paper", 40);
+        long b = insert(metrics, RESEARCHERS.get(1), "Shared paper", 35);
+        insert(metrics, RESEARCHERS.get(0), "Own paper", 12);
+        insert(metrics, RESEARCHERS.get(1), "Other paper", 3);
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("INSERT INTO article_canonical (article_id, canonical_id, similarity) VALUES (?, ?, 1.0)");
+            ps.setLong(1, b);
+            ps.setLong(2, a);
+            return ps.executeUpdate();
+        });
+
+        // Each researcher alone still has their own copy
+        assertMetrics(bruteForce(List.of(40, 12)), metrics.of(RESEARCHERS.get(0)), "R1");
+        assertMetrics(bruteForce(List.of(35, 3)), metrics.of(RESEARCHERS.get(1)), "R2");
+        // Together the less cited copy is left out
+        assertMetrics(bruteForce(List.of(40, 12, 3)), metrics.of(RESEARCHERS.subList(0, 2)), "cohort");
+    }
+
+    @Test
+    void cachedGroupsFollowCitedByChangesAndNewDuplicateRuns() throws SQLException, InterruptedException {
+        AuthorMetrics metrics = new AuthorMetrics(db);
+        String title = "Scalable near duplicate detection for scholarly article collections";
+        long a = insert(metrics, RESEARCHERS.get(0), title, 40);
+        long b = insert(metrics, RESEARCHERS.get(1), title, 35);
+        List<String> cohort = RESEARCHERS.subList(0, 2);
+        assertMetrics(bruteForce(List.of(40, 35)), metrics.of(cohort), "before dedup");
+
+        DuplicateIndex.Result r = new DuplicateIndex(db, metrics).run(1, DuplicateIndex.DEFAULT_THRESHOLD, true);
+        assertEquals(1, r.mappings().size());
+        assertMetrics(bruteForce(List.of(40)), metrics.of(cohort), "after dedup");
+
+        // The copy overtakes the canonical article: now it is the one that counts
+        update(metrics, RESEARCHERS.get(1), b, 35, 60);
+        assertMetrics(bruteForce(List.of(60)), metrics.of(cohort), "after update");
+        update(metrics, RESEARCHERS.get(0), a, 40, 70);
+        assertMetrics(bruteForce(List.of(70)), metrics.of(cohort), "after second update");
+        assertMetrics(bruteForce(List.of(70)), new AuthorMetrics(db).of(cohort), "reloaded");
+    }
+
+    // Writes the row and reports it to metrics in the same transaction, as the writer does
+    private long insert(AuthorMetrics metrics, String researcher, String title, Integer cited) throws SQLException {
+        return db.write(s -> {
+            PreparedStatement ps = s.prepare("INSERT INTO articles (researcher_id, title, authors, link, cited_by) VALUES (?, ?, 'A', ?, ?)");
+            ps.setString(1, researcher);
+            ps.setString(2, title);
+            ps.setString(3, "https://example.org/" + researcher + "/" + title);
+            setCited(ps, 4, cited);
+            ps.executeUpdate();
+            metrics.added(researcher, cited);
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    private void update(AuthorMetrics metrics, String researcher, long id, Integer before, Integer after) throws SQLException {
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("UPDATE articles SET cited_by = ? WHERE id = ?");
+            setCited(ps, 1, after);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+            metrics.changed(researcher, id, before, after);
+            return null;
+        });
+    }
+
+    private static void setCited(PreparedStatement ps, int index, Integer cited) throws SQLException {
+        if (cited == null) ps.setNull(index, Types.INTEGER); else ps.setInt(index, cited);
+    }
+
+    // Straight from the definitions: sort descending, h is the last rank whose value is >= rank
+    private static int[] bruteForce(Iterable<Integer> citedBy) {
+        List<Integer> values = new ArrayList<>();
+        for (Integer c : citedBy) values.add(c == null ? 0 : c);
+        values.sort((x, y) -> Integer.compare(y, x));
+        int total = 0, h = 0, i10 = 0;
+        for (int rank = 1; rank <= values.size(); rank++) {
+            int v = values.get(rank - 1);
+            total += v;
+            if (v >= rank) h = rank;
+            if (v >= 10) i10++;
+        }
+        return new int[]{total, h, i10};
+    }
+
+    private static void assertMetrics(int[] expected, AuthorProfile.Metrics actual, String who) {
+        assertEquals(expected[0], actual.citations, who + " citations");
+        assertEquals(expected[1], actual.hIndex, who + " h-index");
+        assertEquals(expected[2], actual.i10Index, who + " i10-index");
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.scholar.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CitationHistoryTest {
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private ConnectionManager db;
+    private CitationHistory history;
+
+    @BeforeEach
+    void open() throws SQLException {
+        db = new ConnectionManager("jdbc:sqlite:" + dir.resolve("scholar.db"),
+                new ConnectionManager.Settings("NORMAL", 0, 2_000, 2, 5_000));
+        Schema.migrator(db).migrate(null);
+        history = new CitationHistory(db);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        db.close();
+    }
+
+    @Test
+    void articleStoredInsideTheWindowReportsNoGrowthForItsFirstValue() throws SQLException {
+        long fresh = insert("Just imported", 1_000); // the trigger records 1000 today
+        LocalDate monthAgo = TODAY.minusDays(30);
+
+        assertEquals(1_000, history.valueAt(fresh, TODAY));
+        assertEquals(0, history.growthBetween(fresh, monthAgo, TODAY));
+        assertEquals(List.of(), history.fastestRising(monthAgo, 10));
+        assertEquals(0, history.growthBetween("RSRCHaaaaaaA", monthAgo, TODAY).get(0).growth());
+    }
+
+    @Test
+    void growthCountsOnlyChangesAfterTheFirstSample() throws SQLException {
+        // Stored 40 days ago with 50 citations, then +10 and +4 inside the last 30 days
+        long old = insert("Tracked for a while", null);
+        sample(old, TODAY.minusDays(40), 50);
+        sample(old, TODAY.minusDays(20), 10);
+        sample(old, TODAY.minusDays(5), 4);
+        // Stored 10 days ago with 500 citations, then +2
+        long recent = insert("Stored recently", null);
+        sample(recent, TODAY.minusDays(10), 500);
+        sample(recent, TODAY.minusDays(3), 2);
+
+        LocalDate monthAgo = TODAY.minusDays(30);
+        assertEquals(14, history.growthBetween(old, monthAgo, TODAY));
+        assertEquals(4, history.growthBetween(old, TODAY.minusDays(10), TODAY));
+        assertEquals(2, history.growthBetween(recent, monthAgo, TODAY));
+        assertEquals(List.of(14, 2), history.fastestRising(monthAgo, 10).stream().map(CitationHistory.Growth::growth).toList());
+        assertEquals(List.of(14, 2), history.growthBetween("RSRCHaaaaaaA", monthAgo, TODAY).stream()
+                .map(CitationHistory.Growth::growth).toList());
+        assertEquals(64, history.valueAt(old, TODAY)); // the baseline still counts for the value
+    }
+
+    private long insert(String title, Integer citedBy) throws SQLException {
+        return db.write(s -> {
+            PreparedStatement ps = s.prepare("INSERT INTO articles (researcher_id, title, authors, link, cited_by) VALUES ('RSRCHaaaaaaA', ?, 'A', ?, ?)");
+            ps.setString(1, title);
+            ps.setString(2, "https://example.org/" + title);
+            ps.setObject(3, citedBy);
+            ps.executeUpdate();
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    private void sample(long articleId, LocalDate day, int delta) throws SQLException {
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("INSERT INTO citation_history (article_id, day, delta) VALUES (?, ?, ?)");
+            ps.setLong(1, articleId);
+            ps.setLong(2, day.toEpochDay());
+            ps.setInt(3, delta);
+            return ps.executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.scholar.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionManagerTest {
+    private static final ConnectionManager.Settings SETTINGS = new ConnectionManager.Settings("NORMAL", 0, 2_000, 2, 5_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readOnlyDoesNotCreateAMissingDatabase() {
+        Path file = dir.resolve("missing.db");
+        assertThrows(SQLException.class, () -> ConnectionManager.readOnly("jdbc:sqlite:" + file, SETTINGS));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void readOnlyLeavesTheJournalModeAndRefusesWrites() throws SQLException {
+        String url = "jdbc:sqlite:" + dir.resolve("scholar.db");
+        try (ConnectionManager db = new ConnectionManager(url, SETTINGS)) {
+            Schema.migrator(db).migrate(null);
+            db.write(s -> {
+                try (Statement st = s.connection().createStatement()) {
+                    return st.executeUpdate("INSERT INTO articles (researcher_id, title, cited_by) VALUES ('AbCdEfGhIjKL', 'Paper', 12)");
+                }
+            });
+        }
+        // A database another tool left in rollback-journal mode
+        try (Connection c = DriverManager.getConnection(url); Statement st = c.createStatement()) {
+            st.execute("PRAGMA journal_mode=DELETE");
+        }
+
+        try (ConnectionManager db = ConnectionManager.readOnly(url, SETTINGS)) {
+            assertTrue(db.isReadOnly());
+            assertEquals(12, new AuthorMetrics(db).of("AbCdEfGhIjKL").citations);
+            assertThrows(SQLException.class, () -> db.write(s -> null));
+            assertEquals("delete", db.read(s -> {
+                PreparedStatement ps = s.prepare("PRAGMA journal_mode");
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }));
+        }
+    }
+}
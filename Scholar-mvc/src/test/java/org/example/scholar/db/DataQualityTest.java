@@ -0,0 +1,113 @@
+package org.example.scholar.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DataQualityTest {
+    private static final int MAX_IDS = 25;
+
+    @TempDir
+    Path dir;
+
+    private ConnectionManager db;
+
+    @BeforeEach
+    void open() throws SQLException {
+        db = new ConnectionManager("jdbc:sqlite:" + dir.resolve("scholar.db"),
+                new ConnectionManager.Settings("NORMAL", 0, 2_000, 4, 5_000));
+        Schema.migrator(db).migrate(null);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        db.close();
+    }
+
+    @Test
+    void uniqueRuleMatchesABruteForceScanAcrossRanges() throws Exception {
+        // Ids spread over several 20 000-id ranges; links repeat within and across ranges
+        Random random = new Random(11);
+        TreeMap<Long, String> links = new TreeMap<>();
+        while (links.size() < 2_000) {
+            long id = 1 + random.nextInt(150_000);
+            links.put(id, random.nextInt(8) == 0 ? null : "https://example.org/" + random.nextInt(600));
+        }
+        db.write(s -> {
+            PreparedStatement ps = s.prepare(
+                    "INSERT INTO articles (id, researcher_id, title, authors, link, cited_by) VALUES (?, ?, ?, 'A', ?, 1)");
+            for (var e : links.entrySet()) {
+                ps.setLong(1, e.getKey());
+                ps.setString(2, e.getKey() % 2 == 0 ? "EVENaaaaaaaA" : "ODDbbbbbbbbB");
+                ps.setString(3, "Title " + e.getKey());
+                ps.setString(4, e.getValue());
+                ps.executeUpdate();
+            }
+            return null;
+        });
+
+        // Brute force: in id order, every link seen before is a violation
+        Set<String> seen = new HashSet<>();
+        TreeSet<Long> expected = new TreeSet<>();
+        links.forEach((id, link) -> {
+            if (link != null && !seen.add(link)) expected.add(id);
+        });
+
+        for (int threads : new int[] {1, 3, 8}) {
+            DataQuality.Report report = new DataQuality(db, DataQuality.DEFAULT_RULES).check(threads, MAX_IDS);
+            DataQuality.RuleResult unique = rule(report, "link.unique");
+            assertEquals(links.size(), report.rows());
+            assertEquals(expected.size(), unique.violations(), threads + " threads");
+            assertEquals(new ArrayList<>(expected).subList(0, MAX_IDS), unique.ids(), threads + " threads");
+            assertEquals(links.keySet().stream().filter(id -> id % 2 == 0).count(), report.rowsByResearcher().get("EVENaaaaaaaA"));
+            assertFalse(report.passed());
+        }
+    }
+
+    @Test
+    void rowRulesFlagTheOffendingRows() throws Exception {
+        db.write(s -> {
+            PreparedStatement ps = s.prepare("""
+                INSERT INTO articles (id, researcher_id, title, authors, link, publication_date, cited_by)
+                VALUES (?, ?, 'Title ' || ?1, 'A', ?, ?, ?)
+            """);
+            Object[][] rows = {
+                    {1, "GOODaaaaaaaA", "l1", "2020", 5},
+                    {2, "GOODaaaaaaaA&hl=es", "l2", "2020/01", 5},
+                    {3, "GOODaaaaaaaA", "l3", "circa 2020", 5},
+                    {4, "GOODaaaaaaaA", "l4", null, -1},
+                    {5, "GOODaaaaaaaA", "", "1999", null}};
+            for (Object[] r : rows) {
+                for (int i = 0; i < r.length; i++) ps.setObject(i + 1, r[i]);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+
+        DataQuality.Report report = new DataQuality(db, DataQuality.DEFAULT_RULES).check(2, MAX_IDS);
+        assertEquals(List.of(5L), rule(report, "required").ids());
+        assertEquals(List.of(2L), rule(report, "researcher_id.format").ids());
+        assertEquals(List.of(4L), rule(report, "cited_by.valid").ids());
+        assertEquals(List.of(3L), rule(report, "publication_date.format").ids());
+        assertEquals(0, rule(report, "link.unique").violations());
+    }
+
+    private static DataQuality.RuleResult rule(DataQuality.Report report, String name) {
+        return report.rules().stream().filter(r -> r.rule().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.scholar.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RefreshScheduleTest {
+
+    @TempDir
+    Path dir;
+
+    private ConnectionManager db;
+
+    @BeforeEach
+    void open() throws SQLException {
+        db = new ConnectionManager("jdbc:sqlite:" + dir.resolve("scholar.db"),
+                new ConnectionManager.Settings("NORMAL", 0, 2_000, 2, 5_000));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        db.close();
+    }
+
+    @Test
+    void databaseThatAlreadyRanStepTenGetsItsIdsCleaned() throws SQLException {
+        // A database migrated before step 12 existed, with rows seeded or tracked from raw input
+        new SchemaMigrator(db, Schema.STEPS.subList(0, 11), SchemaMigrator.DEFAULT_BATCH_SIZE).migrate(null);
+        db.write(s -> {
+            try (Statement st = s.connection().createStatement()) {
+                st.executeUpdate("""
+                    INSERT INTO refresh_state (researcher_id, last_fetched_at, last_attempt_at, failures, last_error) VALUES
+                      ('FyYiDG0AAAAJ',       100,  100,  0, NULL),
+                      ('FyYiDG0AAAAJ&hl=es', 300,  400,  3, 'HTTP 400'),
+                      ('AbCdEfGhIjKL&hl=en', 200,  500,  2, 'HTTP 400'),
+                      ('no es un id',        NULL, 600,  5, 'HTTP 400'),
+                      ('ZZZZZZZZZZZZ',       NULL, NULL, 0, NULL)
+                """);
+            }
+            return null;
+        });
+
+        assertEquals(1, Schema.migrator(db).migrate(null));
+
+        assertEquals(List.of(
+                "AbCdEfGhIjKL 200 200 0 null",  // renamed, failures reset
+                "FyYiDG0AAAAJ 300 100 0 null",  // merged: the newer fetch time, its own state otherwise
+                "ZZZZZZZZZZZZ 0 0 0 null"), rows());
+    }
+
+    private List<String> rows() throws SQLException {
+        return db.read(s -> {
+            List<String> rows = new ArrayList<>();
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("""
+                     SELECT researcher_id, last_fetched_at, last_attempt_at, failures, last_error
+                     FROM refresh_state ORDER BY researcher_id
+                 """)) {
+                while (rs.next()) {
+                    rows.add(rs.getString(1) + " " + rs.getLong(2) + " " + rs.getLong(3) + " " + rs.getInt(4) + " " + rs.getString(5));
+                }
+            }
+            return rows;
+        });
+    }
+}
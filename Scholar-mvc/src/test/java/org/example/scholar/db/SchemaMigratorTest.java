@@ -0,0 +1,118 @@
+package org.example.scholar.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+    private static final int ROWS = 95;
+    private static final int BATCH = 10;
+
+    @TempDir
+    Path dir;
+
+    private ConnectionManager db;
+    private final List<Long> ranges = new ArrayList<>(); // "from" of every range the rewrite committed
+    private long failAt = -1;                            // the rewrite throws on the range starting here
+
+    @BeforeEach
+    void open() throws SQLException {
+        db = new ConnectionManager("jdbc:sqlite:" + dir.resolve("migrate.db"),
+                new ConnectionManager.Settings("NORMAL", 0, 2_000, 2, 5_000));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        db.close();
+    }
+
+    private SchemaMigrator migrator() {
+        return new SchemaMigrator(db, List.of(
+                SchemaMigrator.Step.schema(1, "items table", st -> {
+                    st.executeUpdate("CREATE TABLE items (id INTEGER PRIMARY KEY, visits INTEGER NOT NULL DEFAULT 0)");
+                    for (int i = 1; i <= ROWS; i++) st.executeUpdate("INSERT INTO items (id) VALUES (" + i + ")");
+                }),
+                SchemaMigrator.Step.rewrite(2, "count a visit on every item", "items", this::visit),
+                SchemaMigrator.Step.schema(3, "index after the rewrite",
+                        st -> st.executeUpdate("CREATE INDEX idx_items_visits ON items(visits)"))), BATCH);
+    }
+
+    private void visit(ConnectionManager.Session s, long from, long to) throws SQLException {
+        PreparedStatement ps = s.prepare("UPDATE items SET visits = visits + 1 WHERE id > ? AND id <= ?");
+        ps.setLong(1, from);
+        ps.setLong(2, to);
+        ps.executeUpdate();
+        if (from == failAt) throw new SQLException("simulated crash in range " + from);
+        ranges.add(from);
+    }
+
+    @Test
+    void rewriteResumesAfterTheLastCommittedRange() throws SQLException {
+        failAt = 50;
+        assertThrows(SQLException.class, () -> migrator().migrate(null));
+
+        List<SchemaMigrator.Status> status = migrator().status();
+        assertTrue(status.get(0).applied());
+        assertFalse(status.get(1).applied());
+        assertEquals(50, status.get(1).cursor()); // the failed range was rolled back with its cursor
+        assertFalse(status.get(2).applied());
+        assertEquals(List.of(0L, 10L, 20L, 30L, 40L), ranges);
+
+        failAt = -1;
+        ranges.clear();
+        List<Long> progress = new ArrayList<>();
+        assertEquals(2, migrator().migrate((step, cursor, last) -> progress.add(cursor)));
+
+        assertEquals(List.of(50L, 60L, 70L, 80L, 90L), ranges); // nothing before the cursor again
+        assertEquals(List.of(60L, 70L, 80L, 90L, 95L), progress);
+        assertTrue(migrator().status().stream().allMatch(SchemaMigrator.Status::applied));
+        assertEquals(List.of(1L), distinctVisits()); // every row rewritten exactly once
+    }
+
+    @Test
+    void appliedStepsAreNotRunAgain() throws SQLException {
+        assertEquals(3, migrator().migrate(null));
+        ranges.clear();
+        assertEquals(0, migrator().migrate(null));
+        assertTrue(ranges.isEmpty());
+        assertEquals(List.of(1L), distinctVisits());
+    }
+
+    @Test
+    void statusDoesNotCreateTheVersionTable() throws SQLException {
+        assertTrue(migrator().status().stream().noneMatch(SchemaMigrator.Status::applied));
+        long tables = db.read(s -> {
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM sqlite_master WHERE name = 'schema_version'")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+        assertEquals(0, tables);
+    }
+
+    private List<Long> distinctVisits() throws SQLException {
+        return db.read(s -> {
+            List<Long> visits = new ArrayList<>();
+            try (Statement st = s.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT DISTINCT visits FROM items ORDER BY visits")) {
+                while (rs.next()) visits.add(rs.getLong(1));
+            }
+            return visits;
+        });
+    }
+}
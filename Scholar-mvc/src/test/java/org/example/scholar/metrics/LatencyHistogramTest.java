@@ -0,0 +1,84 @@
+package org.example.scholar.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long v = 0; v < 8; v++) {
+            assertEquals(v, LatencyHistogram.index(v));
+            assertEquals(v, LatencyHistogram.upperBound((int) v));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndOrdered() {
+        // Every bucket starts right after the previous one ends, up to Long.MAX_VALUE
+        long expectedLower = 0;
+        int i = 0;
+        for (; expectedLower >= 0; i++) {
+            assertEquals(i, LatencyHistogram.index(expectedLower), "lower bound of bucket " + i);
+            long upper = LatencyHistogram.upperBound(i);
+            assertEquals(i, LatencyHistogram.index(upper), "upper bound of bucket " + i);
+            expectedLower = upper + 1; // overflows after the last bucket
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(i - 1));
+    }
+
+    @Test
+    void everyValueIsReportedWithinTheRelativeError() {
+        Random random = new Random(42);
+        for (int n = 0; n < 100_000; n++) {
+            long v = random.nextLong() >>> (1 + random.nextInt(63)); // any non-negative magnitude
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.index(v));
+            assertTrue(upper >= v, v + " above its bucket " + upper);
+            assertTrue(upper - v <= v / 8, v + " reported as " + upper);
+        }
+    }
+
+    @Test
+    void percentilesMatchASortedSampleWithinABucket() {
+        Random random = new Random(7);
+        LatencyHistogram h = new LatencyHistogram();
+        long[] values = new long[10_000];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = 1_000 + (long) (random.nextDouble() * random.nextDouble() * 50_000_000);
+            h.record(values[n]);
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(values.length, s.count());
+        assertEquals(values[values.length - 1], s.max());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), s.mean(), 1e-6);
+        for (double p : new double[] {1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = s.percentile(p);
+            assertTrue(reported >= exact && reported - exact <= exact / 8, "p" + p + ": " + reported + " vs " + exact);
+        }
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(1, s.count());
+        assertEquals(0, s.max());
+        assertEquals(0, s.percentile(50));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram.Snapshot s = new LatencyHistogram().snapshot();
+        assertEquals(0, s.count());
+        assertEquals(0, s.percentile(99));
+        assertEquals(0.0, s.mean());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.scholar.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorIdReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsDistinctIdsAndCountsTheRest() throws IOException {
+        Path file = dir.resolve("ids.txt");
+        Files.writeString(file, "\uFEFFFyYiDG0AAAAJ\n" // with a byte order mark
+                + "# comment\n"
+                + "\n"
+                + "https://scholar.google.com/citations?user=AbCdEfGhIjKL&hl=es\n"
+                + "FyYiDG0AAAAJ&hl=en\n"
+                + "not an id\n"
+                + "AbCdEfGhIjKL", StandardCharsets.UTF_8);
+
+        List<String> ids = new ArrayList<>();
+        try (AuthorIdReader reader = new AuthorIdReader(file)) {
+            reader.forEach(ids::add);
+            assertEquals(List.of("FyYiDG0AAAAJ", "AbCdEfGhIjKL"), ids);
+            assertEquals(7, reader.lines());
+            assertEquals(2, reader.ids());
+            assertEquals(2, reader.duplicates());
+            assertEquals(1, reader.invalid());
+        }
+    }
+
+    @Test
+    void closeEndsAnIterationLeftHalfWay() throws IOException {
+        Path file = dir.resolve("ids.txt");
+        Files.writeString(file, "AAAAAAAAAAAA\nBBBBBBBBBBBB\nCCCCCCCCCCCC\n");
+        AuthorIdReader reader = new AuthorIdReader(file);
+        Iterator<String> it = reader.iterator();
+        assertEquals("AAAAAAAAAAAA", it.next());
+        reader.close();
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void idsSharingAHashAreBothKept() {
+        AuthorIdReader.IdSet set = new AuthorIdReader.IdSet(4);
+        byte[] a = "AAAAAAAAAAAA".getBytes(StandardCharsets.US_ASCII);
+        byte[] b = "BBBBBBBBBBBB".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(set.add(a, a.length, 42));
+        assertTrue(set.add(b, b.length, 42)); // a collision is not a duplicate
+        assertFalse(set.add(a, a.length, 42));
+        assertFalse(set.add(b, b.length, 42));
+        assertTrue(set.add(a, 11, 42));        // a prefix is a different id
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void setGrowsWithoutLosingIds() {
+        AuthorIdReader.IdSet set = new AuthorIdReader.IdSet(16);
+        for (int i = 0; i < 100_000; i++) {
+            byte[] id = String.format("ID%010d", i).getBytes(StandardCharsets.US_ASCII);
+            assertTrue(set.add(id, id.length, AuthorIdReader.hash(id, id.length) & 0xFF)); // many collisions
+        }
+        for (int i = 0; i < 100_000; i += 997) {
+            byte[] id = String.format("ID%010d", i).getBytes(StandardCharsets.US_ASCII);
+            assertFalse(set.add(id, id.length, AuthorIdReader.hash(id, id.length) & 0xFF));
+        }
+        assertEquals(100_000, set.size());
+    }
+}
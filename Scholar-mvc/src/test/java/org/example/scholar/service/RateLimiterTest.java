@@ -0,0 +1,108 @@
+package org.example.scholar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void parsesDeltaSecondsRetryAfter() {
+        assertEquals(0, RateLimiter.parseRetryAfter("0"));
+        assertEquals(120_000, RateLimiter.parseRetryAfter(" 120 "));
+        assertEquals(0, RateLimiter.parseRetryAfter("-5")); // never a negative wait
+    }
+
+    @Test
+    void parsesHttpDateRetryAfter() {
+        String in30s = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        long millis = RateLimiter.parseRetryAfter(in30s);
+        assertTrue(millis > 25_000 && millis <= 30_000, "got " + millis);
+
+        String past = ZonedDateTime.now(ZoneOffset.UTC).minusHours(1).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        assertEquals(0, RateLimiter.parseRetryAfter(past));
+    }
+
+    @Test
+    void rejectsMissingOrMalformedRetryAfter() {
+        assertEquals(-1, RateLimiter.parseRetryAfter(null));
+        assertEquals(-1, RateLimiter.parseRetryAfter("  "));
+        assertEquals(-1, RateLimiter.parseRetryAfter("soon"));
+        assertEquals(-1, RateLimiter.parseRetryAfter("Mon, 32 Foo 2024 99:00:00 GMT"));
+    }
+
+    @Test
+    void backoffStaysWithinTheCappedExponentialWindow() {
+        RateLimiter limiter = new RateLimiter(1000, 1, 5, 100, 1_000);
+        for (int attempt = 0; attempt < 30; attempt++) {
+            long cap = Math.min(1_000, 100L << Math.min(attempt, 20));
+            long max = 0;
+            for (int i = 0; i < 2_000; i++) {
+                long d = limiter.backoffMillis(attempt);
+                assertTrue(d >= 0 && d <= cap, "attempt " + attempt + ": " + d + " outside [0, " + cap + "]");
+                max = Math.max(max, d);
+            }
+            // Full jitter: the window is actually used, not just its lower end
+            assertTrue(max > cap / 2, "attempt " + attempt + ": max " + max + " of cap " + cap);
+        }
+    }
+
+    @Test
+    void throttledCallsUseRetryAfterAndAreDroppedAfterMaxRetries() {
+        RateLimiter limiter = new RateLimiter(1000, 10, 2, 100, 1_000);
+        RateLimiter.ThrottledException ex = new RateLimiter.ThrottledException("429", 7);
+        assertEquals(7, limiter.onThrottled(ex, 0));
+        assertEquals(7, limiter.onThrottled(ex, 1));
+        assertEquals(-1, limiter.onThrottled(ex, 2));
+        assertEquals(3, limiter.throttledCount());
+        assertEquals(2, limiter.retriedCount());
+        assertEquals(1, limiter.droppedCount());
+    }
+
+    @Test
+    void executeAsyncRetriesThrottledCallsUntilTheySucceed() {
+        RateLimiter limiter = new RateLimiter(1000, 10, 3, 1, 5);
+        AtomicInteger attempts = new AtomicInteger();
+        String result = limiter.executeAsync(() -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.<String>failedFuture(new RateLimiter.ThrottledException("429", 1))
+                : CompletableFuture.completedFuture("ok")).join();
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, limiter.retriedCount());
+    }
+
+    @Test
+    void executeAsyncGivesUpAfterMaxRetries() {
+        RateLimiter limiter = new RateLimiter(1000, 10, 1, 1, 5);
+        AtomicInteger attempts = new AtomicInteger();
+        CompletionException ex = assertThrows(CompletionException.class, () -> limiter.executeAsync(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.<String>failedFuture(new RateLimiter.ThrottledException("429", 1));
+        }).join());
+        assertInstanceOf(RateLimiter.ThrottledException.class, ex.getCause());
+        assertEquals(2, attempts.get());
+        assertEquals(1, limiter.droppedCount());
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        RateLimiter limiter = new RateLimiter(1000, 10, 3, 1, 5);
+        AtomicInteger attempts = new AtomicInteger();
+        CompletionException ex = assertThrows(CompletionException.class, () -> limiter.executeAsync(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.<String>failedFuture(new IllegalStateException("HTTP 500"));
+        }).join());
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals(1, attempts.get());
+    }
+}
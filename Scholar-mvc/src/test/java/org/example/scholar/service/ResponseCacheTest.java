@@ -0,0 +1,102 @@
+package org.example.scholar.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+    private static final long HOUR = 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void memoryTierEvictsTheLeastRecentlyUsedEntry() {
+        ResponseCache cache = new ResponseCache(null, HOUR, 300, 0);
+        cache.put("a", new byte[100]);
+        cache.put("b", new byte[100]);
+        cache.put("c", new byte[100]);
+        assertNotNull(cache.get("a")); // "b" is now the least recently used
+        cache.put("d", new byte[100]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    void bodiesLargerThanTheMemoryTierAreNotKept() {
+        ResponseCache cache = new ResponseCache(null, HOUR, 100, 0);
+        cache.put("small", new byte[60]);
+        cache.put("big", new byte[101]);
+        assertNull(cache.get("big"));
+        assertNotNull(cache.get("small")); // not evicted to make room for an entry that never fits
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(dir, HOUR, 1 << 20, 1 << 20);
+        cache.put("short", "x".getBytes(), 20);
+        cache.put("long", "y".getBytes());
+        cache.put("never", "z".getBytes(), 0); // a non-positive TTL stores nothing
+        Thread.sleep(50);
+
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("long"));
+        assertNull(cache.get("never"));
+        // The expired entry is gone from disk as well
+        assertNull(new ResponseCache(dir, HOUR, 1 << 20, 1 << 20).get("short"));
+    }
+
+    @Test
+    void diskTierSurvivesARestart() {
+        byte[] body = "{\"author\":{\"name\":\"Ada\"}}".getBytes();
+        new ResponseCache(dir, HOUR, 1 << 20, 1 << 20).put("k", body);
+
+        ResponseCache reopened = new ResponseCache(dir, HOUR, 1 << 20, 1 << 20);
+        assertArrayEquals(body, reopened.get("k"));
+        assertEquals(1, reopened.diskHits());
+        assertArrayEquals(body, reopened.get("k"));
+        assertEquals(1, reopened.memoryHits()); // promoted to memory by the first read
+    }
+
+    @Test
+    void diskTierEvictsTheLeastRecentlyUsedFiles() throws InterruptedException {
+        // No memory tier, so every read goes to disk; random bodies do not compress, ~1 KB per file
+        ResponseCache cache = new ResponseCache(dir, HOUR, 0, 3_500);
+        Random random = new Random(1);
+        Map<String, byte[]> bodies = Map.of("a", new byte[1000], "b", new byte[1000], "c", new byte[1000], "d", new byte[1000]);
+        bodies.values().forEach(random::nextBytes);
+
+        for (String k : new String[] {"a", "b", "c"}) {
+            cache.put(k, bodies.get(k));
+            Thread.sleep(20); // distinct modification times
+        }
+        assertNotNull(cache.get("a")); // "b" is now the least recently used
+        Thread.sleep(20);
+        cache.put("d", bodies.get("d"));
+
+        assertArrayEquals(bodies.get("a"), cache.get("a"));
+        assertNull(cache.get("b"));
+        assertArrayEquals(bodies.get("c"), cache.get("c"));
+        assertArrayEquals(bodies.get("d"), cache.get("d"));
+    }
+
+    @Test
+    void keysIgnoreParameterOrder() {
+        assertEquals(ResponseCache.key("google_scholar_author", "X", Map.of("num", 20, "start", 0)),
+                ResponseCache.key("google_scholar_author", "X", Map.of("start", 0, "num", 20)));
+        assertNotEquals(ResponseCache.key("google_scholar_author", "X", Map.of("num", 20)),
+                ResponseCache.key("google_scholar_author", "X", Map.of("num", 40)));
+    }
+}